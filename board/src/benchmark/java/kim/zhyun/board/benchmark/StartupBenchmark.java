@@ -0,0 +1,144 @@
+package kim.zhyun.board.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 인스턴스를 늘릴 때의 기동 시간을 모드별로 비교한다. 실행마다 새 JVM 을 띄우고, 프로세스를 시작한 때부터
+ * GET /articles 가 처음 200 을 돌려줄 때까지 걸린 시간(time-to-first-200)을 잰다.
+ * <p>
+ * 실행마다 {@link StartupSeed} 가 만든 h2 파일 DB 의 복사본으로 띄운다. 스키마는 운영처럼 schema.sql 로 맞추고(ddl-auto: none),
+ * 게시글 수만큼 걸리는 기동 작업도 그대로 한다.
+ * <ul>
+ *     <li>boot-jar : bootJar 를 그대로 실행 (java -jar)</li>
+ *     <li>exploded : 의존성을 풀어둔 build/cds/board.jar</li>
+ *     <li>exploded+cds : 위 jar 에 CDS 아카이브(board.jsa)를 함께 사용</li>
+ * </ul>
+ * ./gradlew startupBenchmark -Pruns=5 [-Particles=100000] [-Paot] [-Pprofiles=prod]
+ */
+public class StartupBenchmark {
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 10;
+    
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(args[0]);
+        Path bootJar = Path.of(args[1]);
+        Path cdsDir = Path.of(args[2]);
+        Path seedDir = Path.of(args[3]);
+        String profiles = args[4];
+        List<String> jvmArgs = args.length > 5 && !args[5].isBlank() ? Arrays.asList(args[5].split(" ")) : List.of();
+        
+        List<Mode> modes = List.of(
+                new Mode("boot-jar", bootJar.getParent(), List.of("-jar", bootJar.toString())),
+                new Mode("exploded", cdsDir, List.of("-jar", "board.jar")),
+                new Mode("exploded+cds", cdsDir, List.of("-XX:SharedArchiveFile=board.jsa", "-jar", "board.jar")));
+        
+        List<Result> results = new ArrayList<>();
+        for (Mode mode : modes) {
+            if (mode.name().endsWith("cds") && !Files.exists(cdsDir.resolve("board.jsa"))) {
+                System.out.printf("%s : CDS 아카이브가 없어 건너뜁니다. (./gradlew cdsArchive)%n", mode.name());
+                continue;
+            }
+            
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++)
+                millis[run] = timeToFirst200(mode, jvmArgs, profiles, seedDir);
+            
+            Arrays.sort(millis);
+            results.add(new Result(mode.name(), millis[0], millis[runs / 2], millis[runs - 1]));
+        }
+        
+        System.out.printf("%nGET /articles time-to-first-200  runs=%d  profiles=%s  jvmArgs=%s%n", runs, profiles, jvmArgs);
+        System.out.printf("%-14s %10s %10s %10s%n", "mode", "min(ms)", "p50(ms)", "max(ms)");
+        results.forEach(result -> System.out.printf("%-14s %10d %10d %10d%n",
+                result.mode(), result.min(), result.p50(), result.max()));
+    }
+    
+    private static long timeToFirst200(Mode mode, List<String> jvmArgs, String profiles, Path seedDir) throws Exception {
+        int port = freePort();
+        // 이전 실행이 바꾼 데이터, 파일 DB 잠금의 영향을 받지 않도록 실행마다 seed 를 복사해 쓴다
+        Path dbDir = Files.createTempDirectory("board-startup");
+        Files.copy(seedDir.resolve(StartupSeed.DB_FILE), dbDir.resolve(StartupSeed.DB_FILE), StandardCopyOption.REPLACE_EXISTING);
+        
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(mode.launch());
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.profiles.active=" + profiles,
+                "--spring.datasource.url=" + StartupSeed.url(dbDir),
+                // 10ms 마다 보내는 확인 요청이 429 로 막혀 첫 200 이 늦어지지 않도록
+                "--board.rate-limit.enabled=false",
+                "--logging.level.root=warn"));
+        
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/articles")).build();
+        
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.workingDir().toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try {
+            long deadline = started + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive())
+                    throw new IllegalStateException(mode.name() + " : 기동 중 종료되었습니다. exit code " + process.exitValue());
+                
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200)
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                } catch (IOException e) {
+                    // 아직 포트를 열지 않았다
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            throw new IllegalStateException(mode.name() + " : " + STARTUP_TIMEOUT + " 안에 기동하지 못했습니다.");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS))
+                process.destroyForcibly().waitFor();
+            deleteRecursively(dbDir);
+        }
+    }
+    
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(path);
+        }
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private record Mode(String name, Path workingDir, List<String> launch) {
+    }
+    
+    private record Result(String mode, long min, long p50, long max) {
+    }
+    
+}
@@ -0,0 +1,74 @@
+package kim.zhyun.board.benchmark;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 기동 시간을 운영과 같은 조건에서 재기 위한 h2 파일 DB 를 만든다. (cdsArchive 의 training run, startupBenchmark 가 사용)
+ * <p>
+ * 저장소의 h2/board.mv.db 를 복사해 게시글을 articles 건까지 채운 뒤, 운영에서 기동할 때처럼 schema.sql 을 실행해 둔다.
+ * 기동할 때는 엔티티로 스키마를 만들지 않고(ddl-auto: none) schema.sql 을 다시 실행하므로,
+ * 게시글 수만큼 걸리는 기동 작업(id 비트맵, 검색 색인, 게시글 수 세기)과 schema.sql 실행이 모두 잰 시간에 들어간다.
+ * <p>
+ * ./gradlew startupSeed -Particles=100000
+ */
+public class StartupSeed {
+    
+    public static final String DB_FILE = "board.mv.db";
+    
+    // schema.sql 이 붙이는 컬럼(version, view_count, deleted_at) 전의 게시글 테이블에 넣는다
+    private static final String INSERT_ARTICLES = """
+            INSERT INTO article (title, content, created_at, modified_at)
+            SELECT 'title ' || X, REPEAT('content ' || X || ' ', 20), NOW(), NOW()
+            FROM SYSTEM_RANGE(1, ?)""";
+    
+    public static void main(String[] args) throws Exception {
+        Path source = Path.of(args[0]);
+        Path seedDir = Path.of(args[1]);
+        long articles = Long.parseLong(args[2]);
+        
+        Files.createDirectories(seedDir);
+        Files.copy(source, seedDir.resolve(DB_FILE), StandardCopyOption.REPLACE_EXISTING);
+        
+        try (Connection connection = DriverManager.getConnection(url(seedDir), "sa", "")) {
+            long existing = count(connection);
+            if (existing < articles) {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_ARTICLES)) {
+                    insert.setLong(1, articles - existing);
+                    insert.executeUpdate();
+                }
+            }
+            
+            // spring.sql.init 과 같은 스크립트. 기동할 때 한 번 더 실행되지만 여러 번 실행해도 결과가 같다
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            
+            System.out.printf("%s : 게시글 %d 건%n", seedDir.resolve(DB_FILE), count(connection));
+        }
+    }
+    
+    /**
+     * dir 의 board.mv.db 를 여는 url. 운영 설정과 같은 mode
+     */
+    static String url(Path dir) {
+        return "jdbc:h2:" + dir.toAbsolutePath().resolve("board") + ";mode=MYSQL";
+    }
+    
+    
+    private static long count(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM article")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+    
+}
@@ -0,0 +1,125 @@
+package kim.zhyun.board.benchmark;
+
+import kim.zhyun.board.BoardApplication;
+import kim.zhyun.board.data.ArticleCreateRequest;
+import kim.zhyun.board.service.ArticleService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * 같은 부하를 플랫폼 스레드 풀(Tomcat 기본 200개) 모드와 가상 스레드 모드에 차례로 걸어 비교한다.
+ * <p>
+ * ./gradlew threadModelBenchmark -Pconcurrency=400 -Prequests=20000
+ */
+public class ThreadModelBenchmark {
+    
+    private static final int ARTICLE_COUNT = 1_000;
+    private static final int PAGE_SIZE = 20;
+    
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.parseInt(args[0]);
+        int requests = Integer.parseInt(args[1]);
+        
+        List<Result> results = new ArrayList<>();
+        results.add(run(false, concurrency, requests));
+        results.add(run(true, concurrency, requests));
+        
+        System.out.printf("%nGET /articles?size=%d  concurrency=%d  requests=%d%n", PAGE_SIZE, concurrency, requests);
+        System.out.printf("%-10s %12s %10s %10s %10s %8s%n", "mode", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "errors");
+        results.forEach(result -> System.out.printf("%-10s %12.1f %10.2f %10.2f %10.2f %8d%n",
+                result.mode(), result.throughput(), result.p50(), result.p99(), result.max(), result.errors()));
+    }
+    
+    private static Result run(boolean virtual, int concurrency, int requests) throws InterruptedException {
+        String mode = virtual ? "virtual" : "platform";
+        
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BoardApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.url=jdbc:h2:mem:" + mode + ";mode=MYSQL",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--board.rate-limit.enabled=false",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.sql=warn",
+                "--logging.level.org.hibernate.type=warn")) {
+            
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            List<Long> ids = context.getBean(ArticleService.class).saveAll(IntStream.rangeClosed(1, ARTICLE_COUNT)
+                    .mapToObj(idx -> ArticleCreateRequest.of("title " + idx, "content " + idx))
+                    .toList());
+            
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            
+            fire(mode, client, port, ids, concurrency, Math.max(requests / 10, 1));    // warm-up
+            return fire(mode, client, port, ids, concurrency, requests);
+        }
+    }
+    
+    private static Result fire(String mode, HttpClient client, int port, List<Long> ids,
+                               int concurrency, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                long after = ids.get(index % ids.size()) - 1;
+                HttpRequest request = HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + port + "/articles?size=" + PAGE_SIZE + "&after=" + after)).build();
+                
+                inFlight.acquire();
+                executor.submit(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200)
+                            errors.incrementAndGet();
+                    } catch (IOException | InterruptedException e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - begin;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        
+        Arrays.sort(latencies);
+        return new Result(mode,
+                          requests / elapsedSeconds,
+                          millis(latencies, 0.50),
+                          millis(latencies, 0.99),
+                          millis(latencies, 1.0),
+                          errors.get());
+    }
+    
+    private static double millis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+    
+    private record Result(String mode, double throughput, double p50, double p99, double max, int errors) {
+    }
+    
+}
@@ -0,0 +1,45 @@
+package kim.zhyun.board.data;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * GET /articles 응답 직렬화 비용. ObjectMapper 는 스프링 부트와 같은 기본 설정(Jackson2ObjectMapperBuilder)으로 만든다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+    
+    @Param({"1", "20", "100", "1000"})
+    private int size;
+    
+    private ObjectMapper mapper;
+    private ApiResponse<List<ArticleDto>> response;
+    
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        response = ApiResponse.<List<ArticleDto>>builder()
+                .status(true)
+                .message("article 전체 조회")
+                .result(LongStream.rangeClosed(1, size)
+                        .mapToObj(id -> ArticleDto.of(id, "title " + id, "안녕하세요 게시글 " + id + "번 본문입니다.", now, now, 0L, 0L))
+                        .toList())
+                .nextCursor((long) size).build();
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(response);
+    }
+    
+}
@@ -0,0 +1,27 @@
+package kim.zhyun.board.data;
+
+import kim.zhyun.board.domain.Article;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ArticleDtoBenchmark {
+    
+    private Article article;
+    
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        article = Article.of(1L, "title 1", "content ".repeat(100), now, now, 0L, 0L, null);
+    }
+    
+    @Benchmark
+    public ArticleDto from() {
+        return ArticleDto.from(article);
+    }
+    
+}
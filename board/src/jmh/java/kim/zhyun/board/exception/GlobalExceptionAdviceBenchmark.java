@@ -0,0 +1,42 @@
+package kim.zhyun.board.exception;
+
+import kim.zhyun.board.controller.ArticleController;
+import kim.zhyun.board.data.ArticleCreateRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class GlobalExceptionAdviceBenchmark {
+    
+    private GlobalExceptionAdvice advice;
+    private MethodArgumentNotValidException exception;
+    
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        ArticleCreateRequest request = ArticleCreateRequest.of("", "");
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(request, "articleCreateRequest");
+        bindingResult.rejectValue("title", "NotEmpty", "제목을 입력해주세요");
+        bindingResult.rejectValue("content", "NotEmpty", "내용을 입력해주세요");
+        
+        MethodParameter parameter = new MethodParameter(
+                ArticleController.class.getMethod("save", ArticleCreateRequest.class), 0);
+        
+        advice = new GlobalExceptionAdvice();
+        exception = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+    
+    @Benchmark
+    public ResponseEntity<Object> handleMethodArgumentNotValid() {
+        return advice.handleMethodArgumentNotValid(exception, new HttpHeaders(), HttpStatus.BAD_REQUEST, null);
+    }
+    
+}
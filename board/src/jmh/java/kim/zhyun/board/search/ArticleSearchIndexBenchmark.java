@@ -0,0 +1,86 @@
+package kim.zhyun.board.search;
+
+import kim.zhyun.board.BoardApplication;
+import kim.zhyun.board.data.ArticleCreateRequest;
+import kim.zhyun.board.data.ArticleSearchResult;
+import kim.zhyun.board.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 메모리 역색인(ArticleSearchIndex) 검색. 임베디드 H2(mem) 에 게시글을 넣고 색인이 다 반영된 뒤 잰다.
+ * <ul>
+ *     <li>한 단어 : 게시글 8건 중 3건 꼴로 맞는 흔한 단어</li>
+ *     <li>두 단어 : 두 단어를 모두 포함해야 하는 AND 검색</li>
+ *     <li>깊은 페이지 : 관련도 순 상위 (page + 1) * size 건을 모은 뒤 잘라내는 비용</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ArticleSearchIndexBenchmark {
+    
+    private static final int ARTICLE_COUNT = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 49;
+    private static final String[] WORDS = {"스프링", "자바", "검색", "색인", "게시판", "캐시", "트랜잭션", "복제본"};
+    
+    private ConfigurableApplicationContext context;
+    private ArticleSearchIndex index;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = new SpringApplicationBuilder(BoardApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh-search;mode=MYSQL",
+                     "--spring.jpa.hibernate.ddl-auto=create-drop",
+                     "--spring.sql.init.mode=never",
+                     "--spring.jpa.properties.hibernate.show_sql=false",
+                     "--logging.level.root=warn",
+                     "--logging.level.org.hibernate.sql=warn",
+                     "--logging.level.org.hibernate.type=warn");
+        
+        index = context.getBean(ArticleSearchIndex.class);
+        context.getBean(ArticleService.class).saveAll(IntStream.range(0, ARTICLE_COUNT)
+                .mapToObj(idx -> ArticleCreateRequest.of(
+                        WORDS[idx % WORDS.length] + " 게시글 " + idx,
+                        WORDS[(idx + 1) % WORDS.length] + " " + WORDS[(idx + 3) % WORDS.length] + " 에 대한 본문입니다. " + idx))
+                .toList());
+        
+        // 등록 이벤트는 커밋 뒤 색인 스레드가 반영한다
+        while (index.search("본문입니다", 0, ARTICLE_COUNT).size() < ARTICLE_COUNT)
+            Thread.sleep(100);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<ArticleSearchResult> oneWord() {
+        return index.search(randomWord(), 0, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public List<ArticleSearchResult> twoWords() {
+        return index.search(randomWord() + " " + randomWord(), 0, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public List<ArticleSearchResult> deepPage() {
+        return index.search(randomWord(), DEEP_PAGE, PAGE_SIZE);
+    }
+    
+    private static String randomWord() {
+        return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+    }
+    
+}
@@ -0,0 +1,108 @@
+package kim.zhyun.board.service;
+
+import kim.zhyun.board.BoardApplication;
+import kim.zhyun.board.data.ArticleCreateRequest;
+import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.data.ArticleSummaryDto;
+import kim.zhyun.board.data.ArticleUpdateRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static kim.zhyun.board.config.CacheConfig.ARTICLE_CACHE;
+
+/**
+ * 임베디드 H2(mem) 위에서 ArticleServiceImpl 을 트랜잭션, 캐시 프록시까지 포함해 호출한다.
+ * <p>
+ * findById 는 게시글 캐시에 들어간 뒤로는 캐시 적중만 잰다. DB 에서 읽는 비용은 호출 전마다 그 게시글을 캐시에서 지우는 findByIdUncached 로 잰다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ArticleServiceBenchmark {
+    
+    private static final int ARTICLE_COUNT = 10_000;
+    private static final int PAGE_SIZE = 20;
+    
+    private ConfigurableApplicationContext context;
+    private ArticleService service;
+    private Cache articleCache;
+    private List<Long> ids;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BoardApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;mode=MYSQL",
+                     "--spring.jpa.hibernate.ddl-auto=create-drop",
+                     "--spring.sql.init.mode=never",
+                     "--spring.jpa.properties.hibernate.show_sql=false",
+                     "--logging.level.root=warn",
+                     "--logging.level.org.hibernate.sql=warn",
+                     "--logging.level.org.hibernate.type=warn");
+        
+        service = context.getBean(ArticleService.class);
+        articleCache = context.getBean(CacheManager.class).getCache(ARTICLE_CACHE);
+        ids = service.saveAll(IntStream.rangeClosed(1, ARTICLE_COUNT)
+                .mapToObj(idx -> ArticleCreateRequest.of("title " + idx, "안녕하세요 게시글 " + idx + "번 본문입니다."))
+                .toList());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ArticleDto findById() {
+        return service.findById(randomId());
+    }
+    
+    @Benchmark
+    public ArticleDto findByIdUncached(EvictedId evicted) {
+        return service.findById(evicted.id);
+    }
+    
+    @Benchmark
+    public List<ArticleDto> findAllPage() {
+        return service.findAll(randomId() - 1, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public List<ArticleSummaryDto> findAllSummaryPage() {
+        return service.findAllSummary(randomId() - 1, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public void update() {
+        long id = randomId();
+        service.update(ArticleUpdateRequest.of(id, "title " + id, "수정된 본문 " + System.nanoTime()));
+    }
+    
+    private long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+    
+    /**
+     * 호출마다 게시글을 하나 골라 캐시에서 지워 둔다. 지우는 시간은 잰 시간에 들어가지 않는다.
+     */
+    @State(Scope.Thread)
+    public static class EvictedId {
+        private long id;
+        
+        @Setup(Level.Invocation)
+        public void evict(ArticleServiceBenchmark benchmark) {
+            id = benchmark.randomId();
+            benchmark.articleCache.evict(id);
+        }
+    }
+    
+}
@@ -0,0 +1,141 @@
+package kim.zhyun.board.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * 지우기(evict)와 바꾸기(update)마다 key 의 stamp 를 올리는 Caffeine 캐시.
+ * <p>
+ * 캐시를 채우는 쪽은 읽기 전에 {@link #stamp(Object)} 를 받아 두고 {@link #putIfUnchanged} 로 넣는다.
+ * 그 사이 수정 커밋 후의 evict 가 지나갔다면 읽은 값은 수정 전일 수 있으므로 넣지 않는다.
+ * 복제본은 수정을 max-lag 까지 늦게 받을 수 있어, evict 는 reevict-delay 뒤에 한 번 더 한다.
+ * <p>
+ * 지우지 않고 캐시된 값을 고쳐 쓸 때는 원본을 바꾸기 전에 {@link #beginUpdate}, 바꾼 뒤에 {@link #endUpdate} 를 부른다.
+ * 그 사이(복제본을 쓰면 reevict-delay 뒤까지) 읽은 값은 바뀌기 전인지 뒤인지 알 수 없으므로 넣지 않는다.
+ * <p>
+ * stamp 는 key 별이 아니라 해시로 나눈 칸(stripe)별이라 메모리가 늘지 않는다. 다른 key 때문에 stamp 가 올라도 한 번 덜 넣을 뿐이다.
+ */
+public class StampedCache extends CaffeineCache {
+    private static final int STRIPES = 4096;
+    
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    private final AtomicIntegerArray updating = new AtomicIntegerArray(STRIPES);
+    private final Executor reevictExecutor;
+    
+    public StampedCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                        boolean allowNullValues,
+                        Duration reevictDelay) {
+        super(name, cache, allowNullValues);
+        this.reevictExecutor = reevictDelay.isZero() || reevictDelay.isNegative()
+                ? null
+                : CompletableFuture.delayedExecutor(reevictDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * TransactionAwareCacheManagerProxy 가 돌려준 캐시에서 꺼낸다.
+     */
+    public static StampedCache unwrap(Cache cache) {
+        if (cache instanceof TransactionAwareCacheDecorator decorator)
+            return (StampedCache) decorator.getTargetCache();
+        return (StampedCache) cache;
+    }
+    
+    public long stamp(Object key) {
+        return stamps.get(stripe(key));
+    }
+    
+    /**
+     * stamp 를 받은 뒤로 key 가 지워지거나 바뀌지 않았고, 바뀌는 중도 아닐 때만 넣는다.
+     */
+    public void putIfUnchanged(Object key, Object value, long stamp) {
+        getNativeCache().asMap().compute(key, (k, current) ->
+                updating.get(stripe(k)) == 0 && stamps.get(stripe(k)) == stamp ? toStoreValue(value) : current);
+    }
+    
+    /**
+     * 원본의 key 를 바꾸기 직전에 부른다. endUpdate 까지 putIfUnchanged 로는 넣지 않는다.
+     */
+    public void beginUpdate(Object key) {
+        updating.incrementAndGet(stripe(key));
+    }
+    
+    /**
+     * 원본을 바꾼 뒤 부른다. 캐시에 있으면 updater 로 바꾼 값으로 교체한다. 원본을 바꾸지 못했으면 UnaryOperator.identity()
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void endUpdate(Object key, UnaryOperator<T> updater) {
+        int stripe = stripe(key);
+        getNativeCache().asMap().computeIfPresent(key, (k, current) ->
+                toStoreValue(updater.apply((T) fromStoreValue(current))));
+        
+        // 그 사이 읽기 시작한 값도 넣지 않도록 stamp 를 올린다
+        Runnable release = () -> {
+            stamps.incrementAndGet(stripe);
+            updating.decrementAndGet(stripe);
+        };
+        if (reevictExecutor == null)
+            release.run();
+        else
+            reevictExecutor.execute(release);
+    }
+    
+    @Override
+    public void evict(Object key) {
+        evictNow(key);
+        
+        if (reevictExecutor != null)
+            reevictExecutor.execute(() -> evictNow(key));
+    }
+    
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = evictNow(key);
+        
+        if (reevictExecutor != null)
+            reevictExecutor.execute(() -> evictNow(key));
+        return present;
+    }
+    
+    @Override
+    public void clear() {
+        bumpAll();
+        super.clear();
+    }
+    
+    @Override
+    public boolean invalidate() {
+        bumpAll();
+        return super.invalidate();
+    }
+    
+    
+    private boolean evictNow(Object key) {
+        boolean[] present = new boolean[1];
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            stamps.incrementAndGet(stripe(k));
+            present[0] = current != null;
+            return null;
+        });
+        return present[0];
+    }
+    
+    private void bumpAll() {
+        for (int i = 0; i < STRIPES; i++)
+            stamps.incrementAndGet(i);
+    }
+    
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+    
+}
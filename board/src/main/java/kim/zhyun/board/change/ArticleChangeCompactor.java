@@ -0,0 +1,45 @@
+package kim.zhyun.board.change;
+
+import kim.zhyun.board.repository.ArticleChangeConsumerRepository;
+import kim.zhyun.board.repository.ArticleChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 최근 retention 안에 읽은 소비자가 모두 읽은 이력과, retention 보다 오래된 이력을 지운다.
+ * retention 동안 읽지 않은 소비자는 기다리지 않는다.
+ */
+@Slf4j
+@Component
+public class ArticleChangeCompactor {
+    
+    private final ArticleChangeRepository changeRepository;
+    private final ArticleChangeConsumerRepository consumerRepository;
+    private final Duration retention;
+    
+    public ArticleChangeCompactor(ArticleChangeRepository changeRepository,
+                                  ArticleChangeConsumerRepository consumerRepository,
+                                  @Value("${board.changes.retention:7d}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.consumerRepository = consumerRepository;
+        this.retention = retention;
+    }
+    
+    @Scheduled(fixedDelayString = "${board.changes.compaction-interval-ms:600000}")
+    @Transactional
+    public void compact() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Long ackedSeq = consumerRepository.findMinAckedSeqSince(before);
+        
+        int deleted = changeRepository.deleteConsumed(ackedSeq == null ? 0 : ackedSeq, before);
+        if (deleted > 0)
+            log.info("게시글 변경 이력 {} 건을 정리했습니다. (seq <= {} 또는 {} 이전)", deleted, ackedSeq, before);
+    }
+    
+}
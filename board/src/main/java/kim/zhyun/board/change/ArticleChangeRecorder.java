@@ -0,0 +1,44 @@
+package kim.zhyun.board.change;
+
+import kim.zhyun.board.data.ArticleChangeDto;
+import kim.zhyun.board.domain.ArticleChange;
+import kim.zhyun.board.event.ArticleChangedEvent;
+import kim.zhyun.board.event.ArticleChangesRecordedEvent;
+import kim.zhyun.board.repository.ArticleChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 게시글을 바꾼 트랜잭션이 커밋되기 직전에 같은 트랜잭션으로 변경 이력을 남긴다.
+ * <p>
+ * seq 를 커밋 직전에 시퀀스에서 하나씩 받으므로, 인스턴스가 여럿이어도 seq 순서와 커밋 순서가 어긋나는 구간은
+ * 커밋에 걸리는 시간 정도로 짧다. (조회 쪽은 settle-time 으로 이 구간을 기다린다)
+ */
+@RequiredArgsConstructor
+@Component
+public class ArticleChangeRecorder {
+    
+    private final ArticleChangeRepository changeRepository;
+    private final ApplicationEventPublisher publisher;
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void record(ArticleChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<ArticleChange> changes = changeRepository.saveAll(event.getIds().stream()
+                .map(id -> ArticleChange.of(null, event.getType(), id, now))
+                .toList());
+        
+        // seq 는 persist 시점에 정해지므로 커밋 전에도 알 수 있다
+        publisher.publishEvent(new ArticleChangesRecordedEvent(changes.stream()
+                .map(ArticleChangeDto::from)
+                .toList()));
+    }
+    
+}
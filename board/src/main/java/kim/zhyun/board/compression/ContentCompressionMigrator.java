@@ -0,0 +1,74 @@
+package kim.zhyun.board.compression;
+
+import kim.zhyun.board.domain.ArticleContent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 압축 모드를 켜기 전에 저장된 게시글 중 min-size 이상인 내용을 백그라운드에서 압축한다.
+ * <p>
+ * id 순서로 batch-size 개씩 읽어 batch update 하며, 그 사이 수정된 게시글은 version 이 달라 건너뛴다.
+ * 내용은 같으므로 version, modified_at 은 바꾸지 않는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "board.content-compression.enabled", havingValue = "true")
+@Component
+public class ContentCompressionMigrator {
+    private static final String SELECT_UNCOMPRESSED = """
+            SELECT id, version, content FROM article
+            WHERE id > ? AND deleted_at IS NULL AND OCTET_LENGTH(content) >= ? AND content NOT LIKE ?
+            ORDER BY id
+            LIMIT ?
+            """;
+    private static final String UPDATE_CONTENT = "UPDATE article SET content = ? WHERE id = ? AND version = ?";
+    private static final int BATCH_SIZE = 500;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentCompressionPolicy policy;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofVirtual().name("content-compression-migrator").start(this::migrate);
+    }
+    
+    void migrate() {
+        String compressedPattern = ArticleContent.MARKER + "%";
+        long after = 0;
+        int migrated = 0;
+        
+        try {
+            List<Row> rows;
+            do {
+                rows = jdbcTemplate.query(SELECT_UNCOMPRESSED,
+                                          (rs, rowNum) -> new Row(rs.getLong(1), rs.getLong(2), rs.getString(3)),
+                                          after, policy.getMinBytes(), compressedPattern, BATCH_SIZE);
+                if (rows.isEmpty())
+                    break;
+                
+                List<Object[]> updates = rows.stream()
+                        .map(row -> new Object[]{ArticleContent.compress(row.content()), row.id(), row.version()})
+                        .toList();
+                for (int updated : jdbcTemplate.batchUpdate(UPDATE_CONTENT, updates))
+                    migrated += Math.max(updated, 0);
+                
+                after = rows.get(rows.size() - 1).id();
+            } while (rows.size() == BATCH_SIZE);
+            
+            log.info("기존 게시글 {} 건의 내용을 압축했습니다.", migrated);
+        } catch (RuntimeException e) {
+            log.error("게시글 내용 압축을 {} 건 진행하고 중단했습니다. (id > {} 부터 남음)", migrated, after, e);
+        }
+    }
+    
+    
+    private record Row(long id, long version, String content) { }
+    
+}
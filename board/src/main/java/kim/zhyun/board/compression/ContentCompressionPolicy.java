@@ -0,0 +1,43 @@
+package kim.zhyun.board.compression;
+
+import kim.zhyun.board.domain.ArticleContent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 게시글 내용을 저장하기 직전에 압축할지 정한다.
+ * board.content-compression.enabled 가 켜져 있고 UTF-8 크기가 min-size 이상이면 압축한다.
+ */
+@Component
+public class ContentCompressionPolicy {
+    
+    private final boolean enabled;
+    private final long minBytes;
+    
+    public ContentCompressionPolicy(@Value("${board.content-compression.enabled:false}") boolean enabled,
+                                    @Value("${board.content-compression.min-size:4KB}") DataSize minSize) {
+        this.enabled = enabled;
+        this.minBytes = minSize.toBytes();
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public long getMinBytes() {
+        return minBytes;
+    }
+    
+    public String toStored(String content) {
+        // 평문이 우연히 MARKER 로 시작하면 압축된 값으로 오인되므로 크기와 상관없이 압축한다
+        if (ArticleContent.isCompressed(content)
+                || (enabled && content.getBytes(UTF_8).length >= minBytes))
+            return ArticleContent.compress(content);
+        
+        return content;
+    }
+    
+}
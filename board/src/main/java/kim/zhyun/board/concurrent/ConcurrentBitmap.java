@@ -0,0 +1,84 @@
+package kim.zhyun.board.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 0 이상의 long 을 담는 비트맵. 읽기와 비트 설정, 해제는 잠금 없이 하고, 새 구간(chunk)을 만들 때만 잠근다.
+ * <p>
+ * 2^16 비트(8KB)씩 필요한 구간만 만들므로, id 가 1부터 촘촘하게 발급되면 id 천만 개에 1.25MB 정도를 쓴다.
+ */
+public class ConcurrentBitmap {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int WORDS_PER_CHUNK = (1 << CHUNK_SHIFT) / Long.SIZE;
+    private static final long MAX_CHUNKS = Integer.MAX_VALUE - 8;
+    
+    private volatile AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(0);
+    
+    public boolean get(long index) {
+        AtomicLongArray chunk = chunkOrNull(index);
+        return chunk != null && (chunk.get(word(index)) & mask(index)) != 0;
+    }
+    
+    public void set(long index) {
+        AtomicLongArray chunk = chunkOrNull(index);
+        if (chunk == null)
+            chunk = createChunk(index);
+        
+        long mask = mask(index);
+        chunk.getAndAccumulate(word(index), mask, (word, bit) -> word | bit);
+    }
+    
+    public void clear(long index) {
+        AtomicLongArray chunk = chunkOrNull(index);
+        if (chunk == null)
+            return;
+        
+        long mask = ~mask(index);
+        chunk.getAndAccumulate(word(index), mask, (word, bits) -> word & bits);
+    }
+    
+    
+    private AtomicLongArray chunkOrNull(long index) {
+        if (index < 0)
+            return null;
+        
+        long chunkIndex = index >>> CHUNK_SHIFT;
+        AtomicReferenceArray<AtomicLongArray> current = chunks;
+        return chunkIndex < current.length() ? current.get((int) chunkIndex) : null;
+    }
+    
+    private synchronized AtomicLongArray createChunk(long index) {
+        long chunkIndex = index >>> CHUNK_SHIFT;
+        if (index < 0 || chunkIndex >= MAX_CHUNKS)
+            throw new IllegalArgumentException("비트맵에 담을 수 없는 값입니다. " + index);
+        
+        AtomicReferenceArray<AtomicLongArray> current = chunks;
+        if (chunkIndex >= current.length()) {
+            AtomicReferenceArray<AtomicLongArray> grown = new AtomicReferenceArray<>(
+                    (int) Math.min(MAX_CHUNKS, Math.max(chunkIndex + 1, current.length() * 2L)));
+            for (int i = 0; i < current.length(); i++)
+                grown.set(i, current.get(i));
+            
+            chunks = grown;
+            current = grown;
+        }
+        
+        AtomicLongArray chunk = current.get((int) chunkIndex);
+        if (chunk == null) {
+            chunk = new AtomicLongArray(WORDS_PER_CHUNK);
+            current.set((int) chunkIndex, chunk);
+        }
+        return chunk;
+    }
+    
+    private static int word(long index) {
+        return (int) (index & CHUNK_MASK) >>> 6;
+    }
+    
+    private static long mask(long index) {
+        return 1L << index;
+    }
+    
+}
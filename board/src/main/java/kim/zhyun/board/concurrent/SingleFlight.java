@@ -0,0 +1,80 @@
+package kim.zhyun.board.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 key 를 동시에 읽는 요청들이 읽기 한 번을 나눠 쓰게 한다. (request coalescing)
+ * <p>
+ * 먼저 온 요청(leader)이 자기 스레드에서 loader 를 실행하고, 그동안 들어온 요청은 그 결과를 timeout 까지 기다린다.
+ * loader 가 던진 예외는 기다리던 요청에도 그대로 던진다. 읽기가 끝나면 바로 잊으므로 결과를 캐시하지는 않는다.
+ * <p>
+ * generation 을 주면 그보다 오래된 generation 으로 시작한 읽기에는 붙지 않고 새로 읽는다.
+ * (수정 커밋 뒤 캐시가 지워졌는데, 그 전에 시작한 읽기의 수정 전 결과를 받지 않도록)
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    
+    public SingleFlight(Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+    }
+    
+    /**
+     * @throws TimeoutException     앞선 읽기가 timeout 안에 끝나지 않음
+     * @throws InterruptedException 앞선 읽기를 기다리는 중에 interrupt 됨
+     */
+    public V load(K key, Supplier<V> loader) throws TimeoutException, InterruptedException {
+        return load(key, 0, loader);
+    }
+    
+    /**
+     * generation 보다 오래된 읽기가 진행 중이면 붙지 않고 새로 읽는다. 그 뒤에 오는 요청은 새 읽기에 붙는다.
+     *
+     * @throws TimeoutException     앞선 읽기가 timeout 안에 끝나지 않음
+     * @throws InterruptedException 앞선 읽기를 기다리는 중에 interrupt 됨
+     */
+    public V load(K key, long generation, Supplier<V> loader) throws TimeoutException, InterruptedException {
+        Flight<V> flight = new Flight<>(generation, new CompletableFuture<>());
+        Flight<V> leader = inFlight.compute(key, (k, current) ->
+                current == null || current.generation < generation ? flight : current);
+        
+        if (leader == flight)
+            return lead(key, flight, loader);
+        
+        try {
+            return leader.result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            if (e.getCause() instanceof Error cause)
+                throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    
+    private V lead(K key, Flight<V> flight, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            // 더 새 generation 의 읽기로 바뀌었으면 그대로 둔다
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    
+    private record Flight<V>(long generation, CompletableFuture<V> result) { }
+    
+}
@@ -0,0 +1,40 @@
+package kim.zhyun.board.config;
+
+import kim.zhyun.board.cache.StampedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@EnableCaching
+@Configuration
+public class CacheConfig {
+    
+    public static final String ARTICLE_CACHE = "article";
+    public static final String ARTICLE_RESPONSE_CACHE = "article-response";
+    
+    @Bean
+    public CacheManager cacheManager(@Value("${board.cache.article}") String articleSpec,
+                                     ReplicaProperties replicaProperties) {
+        // 수정 전에 읽은 값(커밋 전 읽기, 뒤처진 복제본 읽기)이 evict 이후에 들어오지 않도록 StampedCache 를 쓴다.
+        // 복제본을 쓰면 evict 를 max-lag 뒤에 한 번 더 한다
+        Duration reevictDelay = replicaProperties.replicas().isEmpty() ? Duration.ZERO : replicaProperties.maxLag();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ARTICLE_CACHE, ARTICLE_RESPONSE_CACHE) {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new StampedCache(name, cache, isAllowNullValues(), reevictDelay);
+            }
+        };
+        cacheManager.setCacheSpecification(articleSpec);
+        
+        // put / evict 를 트랜잭션 커밋 이후로 미뤄서, 커밋 전이거나 롤백된 데이터가 캐시에 남지 않도록 한다
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+    
+}
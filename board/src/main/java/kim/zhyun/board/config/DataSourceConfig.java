@@ -0,0 +1,50 @@
+package kim.zhyun.board.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import kim.zhyun.board.datasource.ReadWriteRoutingDataSource;
+import kim.zhyun.board.datasource.ReplicaLagMonitor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@EnableConfigurationProperties(ReplicaProperties.class)
+@Configuration
+public class DataSourceConfig {
+    
+    /**
+     * spring.datasource.* 로 만드는 쓰기용 커넥션 풀
+     */
+    @ConfigurationProperties("spring.datasource.hikari")
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               ReplicaProperties properties,
+                                               MeterRegistry registry) {
+        return new ReplicaLagMonitor(primaryDataSource, properties, registry);
+    }
+    
+    /**
+     * JPA, JdbcTemplate, schema.sql 이 사용하는 DataSource.
+     * readOnly 트랜잭션은 복제본으로, 그 외에는 primary 로 보낸다.
+     */
+    @Primary
+    @Bean
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicaLagMonitor);
+        routing.afterPropertiesSet();
+        
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+    
+}
@@ -0,0 +1,29 @@
+package kim.zhyun.board.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import kim.zhyun.board.ratelimit.RateLimitFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@EnableConfigurationProperties(RateLimitProperties.class)
+@Configuration
+public class RateLimitConfig {
+    
+    /**
+     * http.server.requests 메트릭 필터 다음, 나머지 필터보다 먼저 거절한다
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   ObjectMapper mapper,
+                                                                   MeterRegistry registry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(properties, mapper, registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.setEnabled(properties.enabled());
+        return registration;
+    }
+    
+}
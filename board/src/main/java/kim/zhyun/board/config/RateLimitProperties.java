@@ -0,0 +1,51 @@
+package kim.zhyun.board.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * board.rate-limit.* - 클라이언트별 요청 빈도 제한과 DB 를 쓰는 요청의 동시 실행 수 제한
+ *
+ * @param enabled     끄면 제한하지 않는다
+ * @param maxClients  토큰 버킷을 들고 있을 (클라이언트, 라우트) 수. 넘치면 오래 안 쓴 것부터 버린다
+ * @param idleTimeout 이 시간 동안 요청이 없던 클라이언트의 버킷은 버린다
+ * @param routes      위에서부터 처음 맞는 규칙을 적용. 맞는 규칙이 없으면 제한하지 않는다
+ * @param concurrency DB 를 쓰는 라우트(dbBound)의 동시 실행 수 제한
+ */
+@ConfigurationProperties("board.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") int maxClients,
+        @DefaultValue("10m") Duration idleTimeout,
+        @DefaultValue List<Route> routes,
+        @DefaultValue Concurrency concurrency
+) {
+    
+    /**
+     * @param name            메트릭 태그로 쓰는 이름
+     * @param methods         비어 있으면 모든 메서드
+     * @param patterns        경로 패턴 (/articles/{id}, /articles/** 등)
+     * @param capacity        한 번에 몰아서 보낼 수 있는 요청 수. 0 이면 클라이언트별로 제한하지 않는다
+     * @param refillPerSecond 초당 채워지는 요청 수
+     * @param dbBound         동시 실행 수 제한 대상인지
+     */
+    public record Route(String name,
+                        @DefaultValue List<String> methods,
+                        List<String> patterns,
+                        @DefaultValue("0") int capacity,
+                        @DefaultValue("0") double refillPerSecond,
+                        @DefaultValue("true") boolean dbBound) { }
+    
+    /**
+     * 응답이 targetLatency 안에 끝나면 limit 를 조금씩(1/limit) 늘리고, 넘으면 backoffRatio 를 곱해 줄인다. (AIMD)
+     */
+    public record Concurrency(@DefaultValue("50") int initialLimit,
+                              @DefaultValue("5") int minLimit,
+                              @DefaultValue("200") int maxLimit,
+                              @DefaultValue("250ms") Duration targetLatency,
+                              @DefaultValue("0.9") double backoffRatio) { }
+    
+}
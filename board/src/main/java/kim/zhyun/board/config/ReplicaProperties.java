@@ -0,0 +1,23 @@
+package kim.zhyun.board.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * board.datasource.* - 읽기 전용 트랜잭션을 보낼 복제본 목록과 지연 허용치
+ *
+ * @param replicas 복제본 접속 정보. 비어 있으면 모든 트랜잭션이 primary 를 사용
+ * @param maxLag   이보다 뒤처진 복제본은 읽기 대상에서 빠진다
+ */
+@ConfigurationProperties("board.datasource")
+public record ReplicaProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration maxLag
+) {
+    
+    public record Replica(String url, String username, String password) { }
+    
+}
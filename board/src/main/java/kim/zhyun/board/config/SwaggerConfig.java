@@ -3,9 +3,14 @@ package kim.zhyun.board.config;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * 문서는 처음 /v3/api-docs 를 요청할 때 만든다. prod 프로필은 springdoc 을 끄므로 이 설정도 읽지 않는다.
+ */
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 @Configuration
 public class SwaggerConfig {
     @Bean
@@ -1,45 +1,205 @@
 package kim.zhyun.board.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import kim.zhyun.board.data.ApiResponse;
+import kim.zhyun.board.data.ArticleBatchResult;
+import kim.zhyun.board.data.ArticleChangeDto;
 import kim.zhyun.board.data.ArticleCreateRequest;
 import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.data.ArticleSearchResult;
+import kim.zhyun.board.data.ArticleSummaryDto;
 import kim.zhyun.board.data.ArticleUpdateRequest;
+import kim.zhyun.board.data.DeleteJobDto;
+import kim.zhyun.board.data.ValidExceptionResponse;
+import kim.zhyun.board.exception.ArticleVersionConflictException;
+import kim.zhyun.board.job.ArticleDeleteJobRunner;
+import kim.zhyun.board.response.ArticleResponseBody;
+import kim.zhyun.board.response.ArticleResponseCache;
 import kim.zhyun.board.service.ArticleService;
+import kim.zhyun.board.stats.ArticleViewCounter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import static kim.zhyun.board.data.type.ExceptionType.ARTICLE_VERSION_CONFLICT;
 
 @Tag(name = "게시글 API", description = "게시글 등록, 조회, 수정, 삭제 기능")
 @RequiredArgsConstructor
 @RestController
 public class ArticleController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String VIEW_SUMMARY = "summary";
+    private static final int EXPORT_BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_SEARCH_WINDOW = 1_000;
+    private static final int MAX_CHANGES_SIZE = 1_000;
+    private static final int ASYNC_DELETE_THRESHOLD = 1_000;
+    
     private final ArticleService service;
+    private final ObjectMapper mapper;
+    private final Validator validator;
+    private final ArticleDeleteJobRunner deleteJobs;
+    private final ArticleViewCounter viewCounter;
+    private final ArticleResponseCache responseCache;
     
     @Operation(summary = "게시글 조회 - 전체")
+    @Parameter(name = "after", description = "이전 페이지 응답의 nextCursor. 생략하면 처음부터 조회")
+    @Parameter(name = "size", description = "한 번에 조회할 게시글 수 (최대 " + MAX_PAGE_SIZE + ")")
+    @Parameter(name = "view", description = "summary : 내용(content)을 제외한 id, 제목, 작성/수정 시각만 조회")
     @GetMapping("/articles")
-    public ResponseEntity<Object> findAll() {
+    public ResponseEntity<Object> findAll(@RequestParam(defaultValue = "0") long after,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(required = false) String view) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        
+        if (VIEW_SUMMARY.equals(view)) {
+            List<ArticleSummaryDto> summaries = service.findAllSummary(after, pageSize);
+            
+            return ResponseEntity.ok(ApiResponse.<List<ArticleSummaryDto>>builder()
+                    .status(true)
+                    .message("article 전체 조회")
+                    .result(summaries)
+                    .nextCursor(nextCursor(summaries, pageSize, ArticleSummaryDto::getId)).build());
+        }
+        
+        List<ArticleDto> articles = service.findAll(after, pageSize);
+        
         return ResponseEntity.ok(ApiResponse.<List<ArticleDto>>builder()
                 .status(true)
                 .message("article 전체 조회")
-                .result(service.findAll()).build());
+                .result(articles)
+                .nextCursor(nextCursor(articles, pageSize, ArticleDto::getId)).build());
     }
     
-    @Operation(summary = "게시글 조회 - 1개")
-    @GetMapping("/articles/{id}")
-    public ResponseEntity<Object> findAll(@PathVariable long id) {
-        return ResponseEntity.ok(ApiResponse.<ArticleDto>builder()
+    @Operation(summary = "게시글 내보내기 - 전체", description = "한 줄에 게시글 하나씩 NDJSON 으로 스트리밍. Accept-Encoding: gzip 이면 gzip 으로 압축")
+    @GetMapping(value = "/articles/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ObjectWriter writer = mapper.writerFor(ArticleDto.class);
+        
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+            
+            service.exportAll(article -> {
+                try {
+                    target.write(writer.writeValueAsBytes(article));
+                    target.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            
+            if (target instanceof GZIPOutputStream gzipOut)
+                gzipOut.finish();
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip)
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        
+        return response.body(body);
+    }
+    
+    @Operation(summary = "게시글 수 조회", description = "삭제되지 않은 전체 게시글 수. DB 를 세지 않고 메모리의 카운터로 응답")
+    @GetMapping("/articles/count")
+    public ResponseEntity<Object> count() {
+        return ResponseEntity.ok(ApiResponse.<Long>builder()
+                .status(true)
+                .message("article 수 조회")
+                .result(service.count()).build());
+    }
+    
+    @Operation(summary = "게시글 검색", description = "제목, 내용에 검색어의 모든 단어가 들어있는 게시글을 관련도 순으로 조회. 제목 일치에 가중치")
+    @Parameter(name = "q", description = "검색어")
+    @Parameter(name = "page", description = "0 부터 시작하는 페이지 번호. page * size 는 " + MAX_SEARCH_WINDOW + " 을 넘을 수 없음")
+    @Parameter(name = "size", description = "한 번에 조회할 게시글 수 (최대 " + MAX_PAGE_SIZE + ")")
+    @GetMapping("/articles/search")
+    public ResponseEntity<Object> search(@RequestParam String q,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNo = Math.min(Math.max(page, 0), MAX_SEARCH_WINDOW / pageSize);
+        
+        return ResponseEntity.ok(ApiResponse.<List<ArticleSearchResult>>builder()
                 .status(true)
-                .message("article " + id + " 조회")
-                .result(service.findById(id)).build());
+                .message("article 검색")
+                .result(service.search(q, pageNo, pageSize)).build());
+    }
+    
+    @Operation(summary = "게시글 변경 이력 조회", description = "afterSeq 이후의 등록(CREATED), 수정(UPDATED), 삭제(DELETED) 이력을 seq 순으로 조회. 다음 요청의 afterSeq 는 응답의 nextCursor")
+    @Parameter(name = "afterSeq", description = "마지막으로 받은 이력의 seq. 생략하면 남아 있는 처음부터 조회")
+    @Parameter(name = "size", description = "한 번에 조회할 이력 수 (최대 " + MAX_CHANGES_SIZE + ")")
+    @Parameter(name = "consumer", description = "소비자 이름. 보내면 afterSeq 까지 읽은 것으로 기록하고, 모든 소비자가 읽은 이력은 주기적으로 정리")
+    @GetMapping("/articles/changes")
+    public ResponseEntity<Object> findChanges(@RequestParam(defaultValue = "0") long afterSeq,
+                                              @RequestParam(defaultValue = "100") int size,
+                                              @RequestParam(required = false) String consumer) {
+        if (consumer != null && !consumer.isBlank())
+            service.ackChanges(consumer, afterSeq);
+        
+        List<ArticleChangeDto> changes = service.findChanges(afterSeq, Math.min(Math.max(size, 1), MAX_CHANGES_SIZE));
+        
+        return ResponseEntity.ok(ApiResponse.<List<ArticleChangeDto>>builder()
+                .status(true)
+                .message("article 변경 이력 조회")
+                .result(changes)
+                .nextCursor(changes.isEmpty() ? afterSeq : changes.get(changes.size() - 1).getSeq()).build());
+    }
+    
+    @Operation(summary = "게시글 조회 - 1개", description = "조회수를 올리고, ETag 로 게시글 버전을 응답. If-None-Match 가 같으면 304. Accept-Encoding: gzip 이면 큰 게시글은 gzip 으로 압축")
+    @GetMapping("/articles/{id}")
+    public void findAll(@PathVariable long id,
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                        WebRequest webRequest,
+                        HttpServletResponse response) throws IOException {
+        // 미리 직렬화해 둔 본문에 아직 DB 에 반영되지 않은 조회수까지 더한 값만 끼워 그대로 쓴다
+        ArticleResponseBody body = responseCache.get(id);
+        long viewCount = viewCounter.view(id, body.getViewCount());
+        
+        // 인코딩마다 ETag 가 다르므로 304 를 판단하기 전에 정한다
+        boolean gzip = body.supportsGzip() && acceptsGzip(acceptEncoding);
+        if (body.supportsGzip())
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        
+        if (webRequest.checkNotModified(body.getETag(gzip)))
+            return;
+        
+        byte[] bytes = body.render(viewCount, gzip);
+        
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (gzip)
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
     }
     
     @Operation(summary = "게시글 등록")
@@ -61,12 +221,56 @@ public class ArticleController {
     }
     
     
-    @Operation(summary = "게시글 수정")
+    @Operation(summary = "게시글 등록 - 여러개", description = "항목마다 유효성 검사 결과를 돌려주고, 통과한 게시글만 batch insert")
+    @Parameter(name = "Request body", description = "제목과 내용을 담은 Json Object 의 Json Array")
+    @PostMapping("/articles/batch")
+    public ResponseEntity<Object> saveAll(@RequestBody List<ArticleCreateRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE)
+            return ResponseEntity
+                    .badRequest().body(ApiResponse.<Void>builder()
+                            .status(false)
+                            .message("한 번에 최대 " + MAX_BATCH_SIZE + "건까지 등록할 수 있습니다.").build());
+        
+        List<List<ValidExceptionResponse>> errorsByIndex = requests.stream().map(this::validate).toList();
+        List<ArticleCreateRequest> valid = new ArrayList<>(requests.size());
+        for (int index = 0; index < requests.size(); index++)
+            if (errorsByIndex.get(index).isEmpty())
+                valid.add(requests.get(index));
+        
+        Iterator<Long> savedIds = service.saveAll(valid).iterator();
+        
+        List<ArticleBatchResult> results = new ArrayList<>(requests.size());
+        for (int index = 0; index < requests.size(); index++) {
+            List<ValidExceptionResponse> errors = errorsByIndex.get(index);
+            boolean passed = errors.isEmpty();
+            
+            results.add(ArticleBatchResult.builder()
+                    .index(index)
+                    .status(passed)
+                    .id(passed ? savedIds.next() : null)
+                    .errors(passed ? null : errors).build());
+        }
+        
+        return ResponseEntity.ok(ApiResponse.<List<ArticleBatchResult>>builder()
+                .status(true)
+                .message(requests.size() + "건 중 " + valid.size() + "건 등록되었습니다.")
+                .result(results).build());
+    }
+    
+    
+    @Operation(summary = "게시글 수정", description = "If-Match 에 조회 때 받은 ETag 를 보내면, 그 사이 다른 수정이 있었을 때 412")
     @Parameter(name = "Request body", description = "게시글 id, 제목, 내용을 담은 Json Object")
     @PutMapping("/articles/{id}")
     public ResponseEntity<Object> update(@PathVariable long id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                          @Valid @RequestBody ArticleUpdateRequest request) {
-        service.update(request);
+        Long expectedVersion = expectedVersion(ifMatch);
+        
+        if (expectedVersion == null)
+            service.update(request);
+        else
+            service.update(request, expectedVersion);
+        
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequestUri()
                 .build().toUri();
@@ -79,10 +283,17 @@ public class ArticleController {
     }
     
     
-    @Operation(summary = "게시글 삭제 - 한개")
+    @Operation(summary = "게시글 삭제 - 한개", description = "If-Match 에 조회 때 받은 ETag 를 보내면, 그 사이 다른 수정이 있었을 때 412")
     @DeleteMapping("/articles/{id}")
-    public ResponseEntity<Object> delete(@PathVariable long id) {
-        service.deleteOne(id);
+    public ResponseEntity<Object> delete(@PathVariable long id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        
+        if (expectedVersion == null)
+            service.deleteOne(id);
+        else
+            service.deleteOne(id, expectedVersion);
+        
         URI location = ServletUriComponentsBuilder
                 .fromCurrentContextPath()
                 .path("/articles")
@@ -93,10 +304,27 @@ public class ArticleController {
                 .location(location).build();
     }
     
-    @Operation(summary = "게시글 삭제 - 여러개")
+    @Operation(summary = "게시글 삭제 - 여러개", description = ASYNC_DELETE_THRESHOLD + " 건을 넘으면 나눠서 백그라운드로 삭제하고 202 와 삭제 작업 위치를 응답")
     @Parameter(name = "Request body", description = "게시글 id를 담은 정수형 Json Array")
     @DeleteMapping("/articles")
     public ResponseEntity<Object> delete(@RequestBody Set<Long> ids) {
+        if (ids.size() > ASYNC_DELETE_THRESHOLD) {
+            DeleteJobDto job = deleteJobs.submit(ids);
+            URI location = ServletUriComponentsBuilder
+                    .fromCurrentContextPath()
+                    .path("/articles/delete-jobs/{id}")
+                    .buildAndExpand(job.getId())
+                    .toUri();
+            
+            return ResponseEntity
+                    .accepted()
+                    .location(location)
+                    .body(ApiResponse.<DeleteJobDto>builder()
+                            .status(true)
+                            .message("article 삭제 작업 등록")
+                            .result(job).build());
+        }
+        
         service.deleteMany(ids);
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequestUri()
@@ -106,4 +334,105 @@ public class ArticleController {
                 .noContent()
                 .location(location).build();
     }
+    
+    @Operation(summary = "게시글 삭제 작업 조회", description = "여러개 삭제가 202 로 응답한 작업의 진행 상황 (RUNNING / COMPLETED / FAILED, 처리 건수)")
+    @GetMapping("/articles/delete-jobs/{id}")
+    public ResponseEntity<Object> findDeleteJob(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.<DeleteJobDto>builder()
+                .status(true)
+                .message("article 삭제 작업 " + id + " 조회")
+                .result(deleteJobs.find(id)).build());
+    }
+    
+    
+    /**
+     * If-Match 가 없거나 * 이면 null. 형식이 다르면 412.
+     * 조회 응답의 ETag 는 조회수 때문에 weak(W/"version") 이지만 version 은 정확하므로, W/ 를 떼고 version 으로 비교한다.
+     * gzip 으로 받은 응답의 ETag(W/"version-gzip") 도 같은 version 이므로 -gzip 을 뗀다.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+            return null;
+        
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith("W/"))
+            eTag = eTag.substring(2);
+        if (eTag.length() < 3 || !eTag.startsWith("\"") || !eTag.endsWith("\""))
+            throw new ArticleVersionConflictException(ARTICLE_VERSION_CONFLICT);
+        
+        String version = eTag.substring(1, eTag.length() - 1);
+        if (version.endsWith(ArticleResponseBody.GZIP_ETAG_SUFFIX))
+            version = version.substring(0, version.length() - ArticleResponseBody.GZIP_ETAG_SUFFIX.length());
+        
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw new ArticleVersionConflictException(ARTICLE_VERSION_CONFLICT);
+        }
+    }
+    
+    /**
+     * Accept-Encoding 이 gzip 을 q 가 0 보다 크게 허용하는지. gzip 이 없으면 * 의 q 를 따른다.
+     * gzip;q=0 처럼 명시적으로 거부하거나 q 를 읽을 수 없으면 압축하지 않는다.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank())
+            return false;
+        
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("gzip") && !name.equals("x-gzip") && !name.equals("*"))
+                continue;
+            
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && (param.startsWith("q=") || param.startsWith("Q="))) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            
+            if (name.equals("*"))
+                any = q;
+            else
+                gzip = gzip == null ? q : Math.max(gzip, q);
+        }
+        
+        if (gzip != null)
+            return gzip > 0;
+        return any != null && any > 0;
+    }
+    
+    private List<ValidExceptionResponse> validate(ArticleCreateRequest request) {
+        if (request == null)
+            return List.of(ValidExceptionResponse.builder()
+                    .field("request")
+                    .message("게시글이 비어 있습니다").build());
+        
+        List<ValidExceptionResponse> errors = new ArrayList<>();
+        validator.validate(request).forEach(violation -> errors.add(ValidExceptionResponse.builder()
+                .field(violation.getPropertyPath().toString())
+                .message(violation.getMessage()).build()));
+        
+        Collections.sort(errors);
+        return errors;
+    }
+    
+    /**
+     * 조회된 게시글이 요청한 개수만큼 채워졌을 때만 다음 페이지가 있다고 보고,
+     * 마지막 게시글의 id를 다음 요청의 after 값으로 돌려준다.
+     */
+    private static <T> Long nextCursor(List<T> articles, int pageSize, Function<T, Long> idOf) {
+        if (articles.size() < pageSize)
+            return null;
+        
+        return idOf.apply(articles.get(articles.size() - 1));
+    }
 }
@@ -0,0 +1,27 @@
+package kim.zhyun.board.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import kim.zhyun.board.stream.ArticleEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Tag(name = "게시글 구독 API", description = "게시글 등록, 수정, 삭제를 SSE 로 구독")
+@RequiredArgsConstructor
+@RestController
+public class ArticleStreamController {
+    private final ArticleEventBroadcaster broadcaster;
+    
+    @Operation(summary = "게시글 변경 구독", description = "커밋된 변경마다 id 가 변경 이력 seq, event 가 CREATED / UPDATED / DELETED 인 SSE 이벤트를 전송")
+    @Parameter(name = "Last-Event-ID", description = "다시 연결할 때 마지막으로 받은 이벤트 id. 그 이후 변경부터 이어서 전송")
+    @GetMapping(value = "/articles/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+    
+}
@@ -0,0 +1,39 @@
+package kim.zhyun.board.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import kim.zhyun.board.data.ApiResponse;
+import kim.zhyun.board.data.CacheStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Tag(name = "캐시 API", description = "캐시 크기, 적중률 조회")
+@RequiredArgsConstructor
+@RestController
+public class CacheController {
+    private final CacheManager cacheManager;
+    
+    @Operation(summary = "캐시 통계 조회")
+    @GetMapping("/caches/stats")
+    public ResponseEntity<Object> stats() {
+        List<CacheStatsDto> stats = new ArrayList<>();
+        
+        cacheManager.getCacheNames().stream().sorted().forEach(name -> {
+            if (cacheManager.getCache(name).getNativeCache() instanceof Cache<?, ?> nativeCache)
+                stats.add(CacheStatsDto.from(name, nativeCache));
+        });
+        
+        return ResponseEntity.ok(ApiResponse.<List<CacheStatsDto>>builder()
+                .status(true)
+                .message("cache 통계 조회")
+                .result(stats).build());
+    }
+    
+}
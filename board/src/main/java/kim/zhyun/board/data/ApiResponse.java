@@ -15,5 +15,6 @@ public class ApiResponse <T> {
     private boolean status;
     private String message;
     private T result;
+    private Long nextCursor;
     
 }
@@ -0,0 +1,20 @@
+package kim.zhyun.board.data;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@Getter @Builder
+@JsonInclude(NON_NULL)
+public class ArticleBatchResult {
+    
+    private int index;
+    private boolean status;
+    private Long id;
+    private List<ValidExceptionResponse> errors;
+    
+}
@@ -0,0 +1,27 @@
+package kim.zhyun.board.data;
+
+import kim.zhyun.board.data.type.ArticleChangeType;
+import kim.zhyun.board.domain.ArticleChange;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@ToString
+@Getter
+@AllArgsConstructor
+public class ArticleChangeDto {
+    
+    private Long seq;
+    
+    private ArticleChangeType type;
+    private Long articleId;
+    
+    private LocalDateTime changedAt;
+    
+    public static ArticleChangeDto from(ArticleChange source) {
+        return new ArticleChangeDto(source.getSeq(), source.getType(), source.getArticleId(), source.getChangedAt());
+    }
+    
+}
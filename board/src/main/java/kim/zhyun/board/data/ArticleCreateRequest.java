@@ -1,6 +1,7 @@
 package kim.zhyun.board.data;
 
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import kim.zhyun.board.domain.Article;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,13 +17,14 @@ import java.util.Objects;
 public class ArticleCreateRequest {
     
     @NotEmpty(message = "제목을 입력해주세요")
+    @Size(max = 255, message = "제목은 255자까지 입력할 수 있습니다")
     private String title;
     
     @NotEmpty(message = "내용을 입력해주세요")
     private String content;
     
     public static Article to(ArticleCreateRequest request) {
-        return Article.of(null, request.getTitle(), request.getContent(), null, null);
+        return Article.of(null, request.getTitle(), request.getContent(), null, null, null, 0L, null);
     }
     
     @Override
@@ -19,8 +19,18 @@ public class ArticleDto {
     private LocalDateTime createdAt;
     private LocalDateTime modifiedAt;
     
+    private Long version;
+    private Long viewCount;
+    
     public static ArticleDto from(Article source) {
-        return of(source.getId(), source.getTitle(), source.getContent(), source.getCreatedAt(), source.getModifiedAt());
+        return of(source.getId(), source.getTitle(), source.getContent(), source.getCreatedAt(), source.getModifiedAt(), source.getVersion(), source.getViewCount());
+    }
+    
+    /**
+     * 캐시에 담긴 인스턴스는 건드리지 않고 조회수만 바꾼 사본을 만든다.
+     */
+    public ArticleDto withViewCount(long viewCount) {
+        return of(id, title, content, createdAt, modifiedAt, version, viewCount);
     }
     
 }
@@ -0,0 +1,16 @@
+package kim.zhyun.board.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@ToString
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class ArticleSearchResult {
+    
+    private Long id;
+    private String title;
+    private float score;
+    
+}
@@ -0,0 +1,26 @@
+package kim.zhyun.board.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 목록 조회용 게시글 요약.
+ * <p>
+ * 생성자 인자로 조회 컬럼이 정해지기 때문에 TEXT 컬럼인 content 는 select 절에 포함되지 않는다.
+ */
+@ToString
+@Getter
+@AllArgsConstructor
+public class ArticleSummaryDto {
+    
+    private Long id;
+    
+    private String title;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime modifiedAt;
+    
+}
@@ -1,6 +1,7 @@
 package kim.zhyun.board.data;
 
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,6 +18,7 @@ public class ArticleUpdateRequest {
     private Long id;
     
     @NotEmpty(message = "제목을 입력해주세요")
+    @Size(max = 255, message = "제목은 255자까지 입력할 수 있습니다")
     private String title;
     
     @NotEmpty(message = "내용을 입력해주세요")
@@ -0,0 +1,31 @@
+package kim.zhyun.board.data;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter @Builder
+public class CacheStatsDto {
+    
+    private String name;
+    private long size;
+    
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    
+    public static CacheStatsDto from(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        
+        return builder()
+                .name(name)
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount()).build();
+    }
+    
+}
@@ -0,0 +1,28 @@
+package kim.zhyun.board.data;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import kim.zhyun.board.data.type.DeleteJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@ToString
+@Getter
+@AllArgsConstructor(staticName = "of")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeleteJobDto {
+    
+    private String id;
+    private DeleteJobStatus status;
+    
+    private int total;
+    private int processed;
+    
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    
+    private String message;
+    
+}
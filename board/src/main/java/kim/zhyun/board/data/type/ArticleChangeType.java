@@ -0,0 +1,8 @@
+package kim.zhyun.board.data.type;
+
+public enum ArticleChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ;
+}
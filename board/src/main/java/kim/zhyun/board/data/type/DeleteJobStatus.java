@@ -0,0 +1,8 @@
+package kim.zhyun.board.data.type;
+
+public enum DeleteJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    ;
+}
@@ -7,6 +7,13 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public enum ExceptionType {
     ARTICLE_NOT_FOUND("잘못된 게시글 번호입니다."),
+    ARTICLE_VERSION_CONFLICT("다른 요청이 먼저 수정한 게시글입니다. 다시 조회한 뒤 시도해주세요."),
+    DELETE_JOB_NOT_FOUND("잘못된 삭제 작업 번호입니다."),
+    DELETE_JOB_REJECTED("실행을 기다리는 삭제 작업이 많습니다. 잠시 후 다시 시도해주세요."),
+    ARTICLE_WRITE_REJECTED("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요."),
+    TOO_MANY_REQUESTS("요청이 너무 잦습니다. 잠시 후 다시 시도해주세요."),
+    ARTICLE_LOAD_TIMEOUT("게시글을 읽는 데 시간이 너무 오래 걸립니다. 잠시 후 다시 시도해주세요."),
+    SERVER_OVERLOADED("서버가 처리할 수 있는 요청이 가득 찼습니다. 잠시 후 다시 시도해주세요."),
     ;
     
     private final String description;
@@ -0,0 +1,68 @@
+package kim.zhyun.board.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * readOnly 트랜잭션은 지연이 허용치 안인 복제본으로, 나머지는 primary 로 보낸다.
+ * <p>
+ * readOnly 여부는 트랜잭션 시작 직후에야 동기화되므로 LazyConnectionDataSourceProxy 로 감싸
+ * 첫 SQL 을 실행할 때 커넥션을 고르도록 해야 한다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    // 트랜잭션이 복제본 커넥션을 잡았다는 표시 (트랜잭션이 끝나면 지운다)
+    private static final Object REPLICA_READ = new Object();
+    
+    private final ReplicaLagMonitor replicas;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaLagMonitor replicas) {
+        this.replicas = replicas;
+        
+        Map<Object, Object> targets = new HashMap<>(replicas.dataSources());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return PRIMARY;
+        
+        String replica = replicas.pick();
+        if (replica == null)
+            return PRIMARY;
+        
+        markReplicaRead();
+        return replica;
+    }
+    
+    /**
+     * 지금 트랜잭션이 복제본에서 읽었으면 true. 복제본에 없던 행은 primary 에는 이미 있을 수 있다.
+     */
+    public static boolean isReadingReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+    
+    
+    private static void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ))
+            return;
+        
+        TransactionSynchronizationManager.bindResource(REPLICA_READ, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+            }
+        });
+    }
+    
+}
@@ -0,0 +1,135 @@
+package kim.zhyun.board.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kim.zhyun.board.config.ReplicaProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 복제본 커넥션 풀을 들고, 주기적으로 지연을 재서 읽기 대상에 넣거나 뺀다.
+ * <p>
+ * primary 의 replica_heartbeat(schema.sql) 에 현재 시각(ms)을 쓰고 각 복제본에서 다시 읽어, 둘의 차이를 지연으로 본다.
+ * 읽지 못하거나 허용치보다 뒤처진 복제본은 다시 따라잡을 때까지 건너뛰고, 남은 복제본이 없으면 primary 가 읽는다.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+    private static final String WRITE_HEARTBEAT = "MERGE INTO replica_heartbeat (id, beat_millis) KEY (id) VALUES (1, ?)";
+    private static final String READ_HEARTBEAT = "SELECT beat_millis FROM replica_heartbeat WHERE id = 1";
+    
+    private final JdbcTemplate primary;
+    private final long maxLagMillis;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    
+    public ReplicaLagMonitor(DataSource primary, ReplicaProperties properties, MeterRegistry registry) {
+        this.primary = new JdbcTemplate(primary);
+        this.maxLagMillis = properties.maxLag().toMillis();
+        
+        for (ReplicaProperties.Replica replica : properties.replicas()) {
+            String key = "replica-" + replicas.size();
+            
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(key);
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(replica.username());
+            dataSource.setPassword(replica.password());
+            dataSource.setReadOnly(true);
+            
+            Replica added = new Replica(key, dataSource, new JdbcTemplate(dataSource));
+            replicas.add(added);
+            
+            Gauge.builder("board.datasource.replica.lag", added, Replica::lag)
+                    .description("복제본의 heartbeat 지연 (ms). 읽지 못하면 -1")
+                    .baseUnit("milliseconds")
+                    .tag("replica", key)
+                    .register(registry);
+        }
+    }
+    
+    Map<Object, Object> dataSources() {
+        Map<Object, Object> dataSources = new LinkedHashMap<>();
+        replicas.forEach(replica -> dataSources.put(replica.key, replica.dataSource));
+        return dataSources;
+    }
+    
+    /**
+     * 읽기 가능한 복제본을 돌아가며 고른다. 없으면 null
+     */
+    String pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available)
+                return replica.key;
+        }
+        return null;
+    }
+    
+    @Scheduled(fixedDelayString = "${board.datasource.heartbeat-interval-ms:1000}")
+    public void measure() {
+        if (replicas.isEmpty())
+            return;
+        
+        long now = System.currentTimeMillis();
+        try {
+            primary.update(WRITE_HEARTBEAT, now);
+        } catch (RuntimeException e) {
+            log.warn("primary 에 heartbeat 를 쓰지 못했습니다.", e);
+            return;
+        }
+        
+        for (Replica replica : replicas) {
+            try {
+                Long beat = replica.jdbcTemplate.queryForObject(READ_HEARTBEAT, Long.class);
+                replica.lagMillis = beat == null ? -1 : Math.max(now - beat, 0);
+            } catch (RuntimeException e) {
+                replica.lagMillis = -1;
+            }
+            
+            boolean available = replica.lagMillis >= 0 && replica.lagMillis <= maxLagMillis;
+            if (available != replica.available)
+                log.info("{} 읽기 {} (lag {}ms)", replica.key, available ? "재개" : "중단", replica.lagMillis);
+            replica.available = available;
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+    
+    
+    private static final class Replica {
+        private final String key;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        
+        // 첫 측정 전에는 읽기 대상에서 뺀다
+        private volatile boolean available;
+        private volatile long lagMillis = -1;
+        
+        private Replica(String key, HikariDataSource dataSource, JdbcTemplate jdbcTemplate) {
+            this.key = key;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+        
+        private double lag() {
+            return lagMillis;
+        }
+    }
+    
+}
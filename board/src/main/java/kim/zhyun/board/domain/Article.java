@@ -1,26 +1,31 @@
 package kim.zhyun.board.domain;
 
 import jakarta.persistence.*;
+import kim.zhyun.board.lookup.ArticleIdListener;
 import lombok.*;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 @ToString
 @Getter @Setter
 @AllArgsConstructor(staticName = "of")
 @NoArgsConstructor
 @DynamicUpdate
-@EntityListeners(AuditingEntityListener.class)
+@SQLRestriction("deleted_at is null")
+@EntityListeners({AuditingEntityListener.class, ArticleIdListener.class})
 @Entity
 public class Article {
     
-    @Id @GeneratedValue(strategy = IDENTITY)
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "article_seq_generator")
+    @SequenceGenerator(name = "article_seq_generator", sequenceName = "article_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -36,4 +41,25 @@ public class Article {
     @LastModifiedDate
     private LocalDateTime modifiedAt;
     
+    @Version
+    private Long version;
+    
+    /**
+     * 조회수. 조회마다 올리지 않고 ArticleViewCounter 가 모아서 한 번에 더한다. (version 은 올리지 않음)
+     */
+    @Column(nullable = false)
+    private Long viewCount;
+    
+    /**
+     * 삭제 시각 (tombstone). 값이 있으면 모든 조회에서 빠지고, ArticlePurger 가 나중에 실제로 지운다.
+     */
+    private LocalDateTime deletedAt;
+    
+    /**
+     * 압축 저장된 내용은 본문이 필요한 이 시점에 푼다. (ArticleContent)
+     */
+    public String getContent() {
+        return ArticleContent.decompress(content);
+    }
+    
 }
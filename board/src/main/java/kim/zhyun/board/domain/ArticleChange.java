@@ -0,0 +1,39 @@
+package kim.zhyun.board.domain;
+
+import jakarta.persistence.*;
+import kim.zhyun.board.data.type.ArticleChangeType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+/**
+ * 게시글 변경 이력 (outbox). 게시글을 바꾼 트랜잭션 안에서 함께 insert 되며 수정하지 않는다.
+ * <p>
+ * seq 는 블록으로 미리 받지 않고(allocationSize = 1) 매번 시퀀스에서 받는다. 인스턴스마다 블록을 나눠 받으면
+ * 한 인스턴스가 몇 분 뒤에 쓰는 seq 가 다른 인스턴스가 이미 쓴 seq 보다 작아, afterSeq 로 이어 읽는 소비자가 건너뛴다.
+ */
+@ToString
+@Getter
+@AllArgsConstructor(staticName = "of")
+@NoArgsConstructor
+@Entity
+public class ArticleChange {
+    
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "article_change_seq_generator")
+    @SequenceGenerator(name = "article_change_seq_generator", sequenceName = "article_change_order_seq", allocationSize = 1)
+    private Long seq;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ArticleChangeType type;
+    
+    @Column(nullable = false)
+    private Long articleId;
+    
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+    
+}
@@ -0,0 +1,30 @@
+package kim.zhyun.board.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 변경 이력을 읽는 소비자가 어디까지 읽었는지. 압축(compaction)은 모든 소비자가 읽은 이력만 지운다.
+ */
+@ToString
+@Getter
+@AllArgsConstructor(staticName = "of")
+@NoArgsConstructor
+@Entity
+public class ArticleChangeConsumer {
+    
+    @Id
+    @Column(length = 100)
+    private String name;
+    
+    @Column(nullable = false)
+    private Long ackedSeq;
+    
+    @Column(nullable = false)
+    private LocalDateTime ackedAt;
+    
+}
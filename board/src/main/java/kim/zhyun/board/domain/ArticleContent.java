@@ -0,0 +1,55 @@
+package kim.zhyun.board.domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * article.content 컬럼의 압축 형식.
+ * <p>
+ * 압축한 값은 MARKER 뒤에 Deflate 결과를 Base64 로 붙여 같은 TEXT 컬럼에 저장한다.
+ * MARKER 로 시작하지 않는 값은 평문이므로 압축 여부가 섞인 테이블도 그대로 읽을 수 있다.
+ * <p>
+ * TEXT 에 넣기 위해 Base64 로 바꾸므로 저장 크기는 Deflate 결과의 4/3 + MARKER(9 바이트)가 된다.
+ * 예를 들어 Deflate 로 1/3 이 되는 본문은 원문의 약 44% 로 저장되어, 압축으로 줄인 양의 약 1/6 을 Base64 가 되돌린다.
+ * 압축이 잘 안 되는 본문(이미 압축된 데이터, 짧은 글)은 원문보다 커질 수 있으므로 min-size 를 충분히 크게 둔다.
+ * 컬럼을 BLOB 으로 나누면 이 비용은 없어지지만, 평문과 섞어 읽을 수 있도록 같은 컬럼을 쓴다.
+ */
+public final class ArticleContent {
+    public static final String MARKER = "\u0001deflate:";
+    
+    private ArticleContent() { }
+    
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.startsWith(MARKER);
+    }
+    
+    public static String compress(String content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(content.length() / 4, 64));
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(content.getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return MARKER + Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+    
+    public static String decompress(String stored) {
+        if (!isCompressed(stored))
+            return stored;
+        
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(MARKER.length()));
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+}
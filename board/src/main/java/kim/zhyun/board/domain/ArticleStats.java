@@ -0,0 +1,29 @@
+package kim.zhyun.board.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 재기동 후에도 전체 게시글 수를 다시 세지 않도록 ArticleCounter 가 주기적으로 남겨두는 값. 행은 하나(id = 1)뿐이다.
+ */
+@ToString
+@Getter
+@AllArgsConstructor(staticName = "of")
+@NoArgsConstructor
+@Entity
+public class ArticleStats {
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long articleCount;
+    
+    @Column(nullable = false)
+    private LocalDateTime countedAt;
+    
+}
@@ -0,0 +1,38 @@
+package kim.zhyun.board.event;
+
+import kim.zhyun.board.data.type.ArticleChangeType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.List;
+
+import static kim.zhyun.board.data.type.ArticleChangeType.*;
+
+/**
+ * ArticleServiceImpl 이 게시글을 등록, 수정, 삭제한 트랜잭션 안에서 발행한다.
+ * 내용은 담지 않으므로 필요한 리스너는 커밋 이후 DB 에서 다시 읽는다.
+ */
+@ToString
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ArticleChangedEvent {
+    
+    private final ArticleChangeType type;
+    private final List<Long> ids;
+    
+    public static ArticleChangedEvent created(Collection<Long> ids) {
+        return new ArticleChangedEvent(CREATED, List.copyOf(ids));
+    }
+    
+    public static ArticleChangedEvent updated(long id) {
+        return new ArticleChangedEvent(UPDATED, List.of(id));
+    }
+    
+    public static ArticleChangedEvent deleted(Collection<Long> ids) {
+        return new ArticleChangedEvent(DELETED, List.copyOf(ids));
+    }
+    
+}
@@ -0,0 +1,20 @@
+package kim.zhyun.board.event;
+
+import kim.zhyun.board.data.ArticleChangeDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * ArticleChangeRecorder 가 변경 이력을 seq 를 받아 기록한 뒤 발행한다. 커밋 이후 SSE 구독자에게 전달된다.
+ */
+@ToString
+@Getter
+@RequiredArgsConstructor
+public class ArticleChangesRecordedEvent {
+    
+    private final List<ArticleChangeDto> changes;
+    
+}
@@ -2,10 +2,13 @@ package kim.zhyun.board.exception;
 
 import kim.zhyun.board.data.type.ExceptionType;
 
+/**
+ * 없는 id 로 조회하는 요청이 많아, 응답에 쓰지 않는 stack trace 는 만들지 않는다.
+ */
 public class ArticleNotFoundException extends RuntimeException {
     
     public ArticleNotFoundException(ExceptionType type) {
-        super(type.getDescription());
+        super(type.getDescription(), null, false, false);
     }
     
 }
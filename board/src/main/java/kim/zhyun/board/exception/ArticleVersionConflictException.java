@@ -0,0 +1,11 @@
+package kim.zhyun.board.exception;
+
+import kim.zhyun.board.data.type.ExceptionType;
+
+public class ArticleVersionConflictException extends RuntimeException {
+    
+    public ArticleVersionConflictException(ExceptionType type) {
+        super(type.getDescription());
+    }
+    
+}
@@ -0,0 +1,11 @@
+package kim.zhyun.board.exception;
+
+import kim.zhyun.board.data.type.ExceptionType;
+
+public class ArticleWriteRejectedException extends RuntimeException {
+    
+    public ArticleWriteRejectedException(ExceptionType type) {
+        super(type.getDescription());
+    }
+    
+}
@@ -0,0 +1,11 @@
+package kim.zhyun.board.exception;
+
+import kim.zhyun.board.data.type.ExceptionType;
+
+public class DeleteJobNotFoundException extends RuntimeException {
+    
+    public DeleteJobNotFoundException(ExceptionType type) {
+        super(type.getDescription());
+    }
+    
+}
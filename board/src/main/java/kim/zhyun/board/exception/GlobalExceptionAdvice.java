@@ -3,6 +3,7 @@ package kim.zhyun.board.exception;
 import kim.zhyun.board.data.ApiResponse;
 import kim.zhyun.board.data.ValidExceptionResponse;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -27,6 +28,46 @@ public class GlobalExceptionAdvice extends ResponseEntityExceptionHandler {
                         .message(e.getMessage()).build());
     }
     
+    @ExceptionHandler(DeleteJobNotFoundException.class)
+    public ResponseEntity<Object> deleteJobNotFoundException(DeleteJobNotFoundException e) {
+        return ResponseEntity
+                .badRequest().body(ApiResponse.<Void>builder()
+                        .status(false)
+                        .message(e.getMessage()).build());
+    }
+    
+    @ExceptionHandler(DeleteJobRejectedException.class)
+    public ResponseEntity<Object> deleteJobRejectedException(DeleteJobRejectedException e) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.<Void>builder()
+                        .status(false)
+                        .message(e.getMessage()).build());
+    }
+    
+    @ExceptionHandler(ArticleVersionConflictException.class)
+    public ResponseEntity<Object> articleVersionConflictException(ArticleVersionConflictException e) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED).body(ApiResponse.<Void>builder()
+                        .status(false)
+                        .message(e.getMessage()).build());
+    }
+    
+    @ExceptionHandler(ArticleLoadTimeoutException.class)
+    public ResponseEntity<Object> articleLoadTimeoutException(ArticleLoadTimeoutException e) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.<Void>builder()
+                        .status(false)
+                        .message(e.getMessage()).build());
+    }
+    
+    @ExceptionHandler(ArticleWriteRejectedException.class)
+    public ResponseEntity<Object> articleWriteRejectedException(ArticleWriteRejectedException e) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.<Void>builder()
+                        .status(false)
+                        .message(e.getMessage()).build());
+    }
+    
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
                                                                   HttpHeaders headers,
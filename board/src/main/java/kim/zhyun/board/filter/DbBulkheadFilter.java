@@ -0,0 +1,85 @@
+package kim.zhyun.board.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import kim.zhyun.board.data.ApiResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가상 스레드 모드에서는 요청마다 스레드가 생기므로 수천 개의 요청이 한꺼번에 Hikari 풀로 몰린다.
+ * 게시글 API 의 동시 실행 수를 커넥션 풀 크기로 묶고, 정해진 시간 안에 자리가 나지 않으면 503 으로 바로 돌려보낸다.
+ * 비동기로 응답을 쓰는 요청(/articles/export)은 응답을 다 쓴 뒤에 자리를 돌려준다.
+ * SSE 구독(/articles/stream)처럼 커넥션 없이 오래 열려 있는 요청과, 메모리에서 답하는 요청은 자리를 잡지 않는다.
+ */
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Component
+public class DbBulkheadFilter extends OncePerRequestFilter {
+    // 구독 (최대 30분 열려 있음), 메모리 카운터, 메모리 검색 색인, 메모리 삭제 작업 상태
+    private static final Set<String> NO_DB_PATHS = Set.of("/articles/stream", "/articles/count", "/articles/search");
+    private static final String DELETE_JOBS_PATH = "/articles/delete-jobs/";
+    
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final byte[] rejectedBody;
+    
+    public DbBulkheadFilter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                            @Value("${board.db-bulkhead.acquire-timeout:2s}") Duration acquireTimeout,
+                            ObjectMapper mapper) throws IOException {
+        this.permits = new Semaphore(maximumPoolSize, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.rejectedBody = mapper.writeValueAsBytes(ApiResponse.<Void>builder()
+                .status(false)
+                .message("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.").build());
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/article")
+                || NO_DB_PATHS.contains(path)
+                || path.startsWith(DELETE_JOBS_PATH);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getOutputStream().write(rejectedBody);
+            return;
+        }
+        
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestCompletion.afterCompletion(request, permits::release);
+        }
+    }
+    
+}
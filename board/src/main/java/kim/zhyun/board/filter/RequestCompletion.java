@@ -0,0 +1,58 @@
+package kim.zhyun.board.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 필터가 잡은 자원을 요청 처리가 끝난 뒤 돌려주기 위한 것.
+ * <p>
+ * 비동기 요청(StreamingResponseBody 등)은 filterChain.doFilter 가 돌아와도 다른 스레드가 아직 응답을 쓰고 있으므로,
+ * 비동기가 시작됐으면 AsyncListener 로 완료, 오류, 시간 초과 중 먼저 온 것을 기다린다.
+ */
+public final class RequestCompletion {
+    
+    private RequestCompletion() { }
+    
+    /**
+     * filterChain.doFilter 가 돌아온 뒤 부른다. 비동기가 시작되지 않았으면 바로, 시작됐으면 끝날 때 action 을 한 번 실행한다.
+     */
+    public static void afterCompletion(HttpServletRequest request, Runnable action) {
+        if (!request.isAsyncStarted()) {
+            action.run();
+            return;
+        }
+        
+        AtomicBoolean done = new AtomicBoolean();
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                runOnce();
+            }
+            
+            @Override
+            public void onError(AsyncEvent event) {
+                runOnce();
+            }
+            
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                runOnce();
+            }
+            
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // 같은 요청에서 비동기를 다시 시작하면 리스너가 지워지므로 다시 등록한다
+                event.getAsyncContext().addListener(this);
+            }
+            
+            private void runOnce() {
+                if (done.compareAndSet(false, true))
+                    action.run();
+            }
+        });
+    }
+    
+}
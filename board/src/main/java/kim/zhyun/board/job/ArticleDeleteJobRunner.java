@@ -0,0 +1,175 @@
+package kim.zhyun.board.job;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import kim.zhyun.board.data.DeleteJobDto;
+import kim.zhyun.board.exception.DeleteJobNotFoundException;
+import kim.zhyun.board.exception.DeleteJobRejectedException;
+import kim.zhyun.board.service.ArticleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static kim.zhyun.board.data.type.DeleteJobStatus.*;
+import static kim.zhyun.board.data.type.ExceptionType.DELETE_JOB_NOT_FOUND;
+import static kim.zhyun.board.data.type.ExceptionType.DELETE_JOB_REJECTED;
+
+/**
+ * 많은 게시글 삭제를 chunk-size 개씩 나눠 백그라운드에서 실행한다.
+ * <p>
+ * chunk 마다 ArticleService.deleteMany 를 따로 호출하므로 트랜잭션이 짧고 IN 절 크기가 제한된다.
+ * 작업 상태는 메모리에만 두며, 끝난 작업은 retention 이 지나면 조회되지 않는다. 실행 중이거나 기다리는 작업은 만료되지 않는다.
+ * <p>
+ * 실행을 기다리는 작업은 queue-capacity 개까지만 받고, 넘치면 DeleteJobRejectedException (503)
+ */
+@Slf4j
+@Component
+public class ArticleDeleteJobRunner {
+    
+    private final ArticleService service;
+    private final int chunkSize;
+    private final Cache<String, Job> jobs;
+    private final ExecutorService executor;
+    
+    public ArticleDeleteJobRunner(ArticleService service,
+                                  @Value("${board.delete-jobs.chunk-size:500}") int chunkSize,
+                                  @Value("${board.delete-jobs.concurrency:2}") int concurrency,
+                                  @Value("${board.delete-jobs.queue-capacity:100}") int queueCapacity,
+                                  @Value("${board.delete-jobs.retention:1h}") Duration retention) {
+        this.service = service;
+        this.chunkSize = chunkSize;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new FinishedJobExpiry(retention))
+                .build();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency,
+                                               0L, TimeUnit.MILLISECONDS,
+                                               new LinkedBlockingQueue<>(queueCapacity),
+                                               Thread.ofPlatform()
+                                                       .daemon()
+                                                       .name("article-delete-job-", 1)
+                                                       .factory());
+    }
+    
+    /**
+     * 실행을 기다리는 작업이 가득 찼으면 DeleteJobRejectedException
+     */
+    public DeleteJobDto submit(Set<Long> ids) {
+        Job job = new Job(UUID.randomUUID().toString(), ids.size());
+        jobs.put(job.id, job);
+        
+        List<Long> remaining = new ArrayList<>(ids);
+        try {
+            executor.execute(() -> run(job, remaining));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            throw new DeleteJobRejectedException(DELETE_JOB_REJECTED);
+        }
+        
+        return job.toDto();
+    }
+    
+    public DeleteJobDto find(String id) {
+        Job job = jobs.getIfPresent(id);
+        if (job == null)
+            throw new DeleteJobNotFoundException(DELETE_JOB_NOT_FOUND);
+        
+        return job.toDto();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    
+    private void run(Job job, List<Long> ids) {
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                
+                service.deleteMany(new LinkedHashSet<>(chunk));
+                job.processed.addAndGet(chunk.size());
+                
+                if (Thread.currentThread().isInterrupted())
+                    throw new InterruptedException();
+            }
+            job.finish(null);
+        } catch (Exception e) {
+            log.error("게시글 삭제 작업 {} 이 {} / {} 건에서 실패했습니다.", job.id, job.processed.get(), job.total, e);
+            job.finish(e);
+        }
+        // 끝났으므로 이제부터 retention 을 센다
+        jobs.put(job.id, job);
+    }
+    
+    
+    /**
+     * 끝난 작업만 retention 뒤에 만료한다. 실행 중인 작업은 오래 걸려도 상태를 조회할 수 있어야 한다.
+     */
+    private record FinishedJobExpiry(Duration retention) implements Expiry<String, Job> {
+        
+        @Override
+        public long expireAfterCreate(String id, Job job, long currentTime) {
+            return job.finishedAt == null ? Long.MAX_VALUE : retention.toNanos();
+        }
+        
+        @Override
+        public long expireAfterUpdate(String id, Job job, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, job, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String id, Job job, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+    
+    
+    private static final class Job {
+        private final String id;
+        private final int total;
+        private final AtomicInteger processed = new AtomicInteger();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        
+        private volatile LocalDateTime finishedAt;
+        private volatile String failure;
+        
+        private Job(String id, int total) {
+            this.id = id;
+            this.total = total;
+        }
+        
+        private void finish(Exception e) {
+            failure = e == null ? null : String.valueOf(e.getMessage());
+            finishedAt = LocalDateTime.now();
+        }
+        
+        private DeleteJobDto toDto() {
+            LocalDateTime finished = finishedAt;
+            return DeleteJobDto.of(id,
+                                   finished == null ? RUNNING : failure == null ? COMPLETED : FAILED,
+                                   total,
+                                   processed.get(),
+                                   startedAt,
+                                   finished,
+                                   failure);
+        }
+    }
+    
+}
@@ -0,0 +1,192 @@
+package kim.zhyun.board.lookup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kim.zhyun.board.concurrent.ConcurrentBitmap;
+import kim.zhyun.board.event.ArticleChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static kim.zhyun.board.data.type.ArticleChangeType.CREATED;
+import static kim.zhyun.board.data.type.ArticleChangeType.DELETED;
+
+/**
+ * 없는 게시글 id 를 DB 에 묻지 않고 거르기 위한 id 비트맵과 음성 결과 캐시.
+ * <p>
+ * 비트맵은 기동이 끝나면 살아 있는 게시글 id 를 keyset 페이지 단위로 채우고(seed), 이후에는 아래처럼 유지한다.
+ * 비트가 남아 있는데 게시글이 없는 것(false positive)은 DB 를 한 번 더 볼 뿐이지만,
+ * 있는 게시글의 비트가 비는 것(false negative)은 404 가 되므로 비트는 일찍 켜고 늦게 끈다.
+ * <ul>
+ *     <li>등록: insert 직후(커밋 전)에 켠다. JPA 로 저장하면 {@link ArticleIdListener}, 쓰기 지연 모드의 JDBC insert 는 CREATED 이벤트.</li>
+ *     <li>삭제: 커밋된 뒤에 끈다.</li>
+ *     <li>seed 는 복제 지연으로 최근 게시글을 빠뜨리지 않도록 primary 에서 읽는다. 끝나기 전에는 비트맵으로 거르지 않는다.</li>
+ * </ul>
+ * 다른 인스턴스, H2 콘솔, 복원처럼 이 인스턴스를 거치지 않고 들어온 게시글은 이벤트로 알 수 없다. 그래서
+ * <ul>
+ *     <li>id 는 인스턴스마다 article_seq 에서 50 개씩 블록으로 받아 쓰므로(pooled-lo), seed 가 본 가장 큰 id 보다 작은 id 도
+ *         나중에 다른 인스턴스가 등록할 수 있다. 그래서 비트맵으로는 seed 가 본 가장 큰 id 와, seed 를 시작할 때 article_seq 가
+ *         가장 최근에 나눠준 두 블록보다 앞선 id 중 작은 쪽(high-water mark) 이하만 거르고, 그보다 큰 id 는 DB 에서 확인한다.</li>
+ *     <li>reseed-interval 마다 다시 읽어 그 사이 들어온 게시글의 비트를 켜고 high-water mark 를 올린다. (끄지는 않는다)</li>
+ * </ul>
+ * seed 가 끝나기 전 DB 에서도 없던 id 는 음성 결과 캐시에 넣어, 기동 직후 같은 id 를 반복해 묻는 요청도 DB 까지 가지 않게 한다.
+ */
+@Slf4j
+@Component
+public class ArticleIdIndex {
+    private static final String SELECT_IDS = """
+            SELECT id FROM article
+            WHERE deleted_at IS NULL AND id > ?
+            ORDER BY id
+            LIMIT ?""";
+    // 다음에 나눠줄 값. 그 앞 블록(BASE_VALUE - ALLOCATION_SIZE 부터)이 가장 최근에 나눠준 블록이다
+    private static final String NEXT_SEQUENCE_VALUE = """
+            SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+            WHERE SEQUENCE_SCHEMA = 'PUBLIC' AND SEQUENCE_NAME = 'ARTICLE_SEQ'""";
+    // Article 의 @SequenceGenerator allocationSize, schema.sql 의 INCREMENT BY 와 같아야 한다
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int SEED_PAGE_SIZE = 10_000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentBitmap ids = new ConcurrentBitmap();
+    private final Cache<Long, Boolean> misses;
+    private final Counter rejectedByBitmap;
+    private final Counter rejectedByMissCache;
+    private final AtomicLong highWater = new AtomicLong();
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    
+    private volatile boolean ready;
+    
+    public ArticleIdIndex(JdbcTemplate jdbcTemplate,
+                          MeterRegistry registry,
+                          @Value("${board.article-lookup.miss-cache-size:100000}") long missCacheSize,
+                          @Value("${board.article-lookup.miss-cache-ttl:1m}") Duration missCacheTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(missCacheSize)
+                .expireAfterWrite(missCacheTtl)
+                .build();
+        
+        Gauge.builder("board.article.lookup.ready", this, index -> index.ready ? 1 : 0)
+                .description("id 비트맵 seed 완료 여부")
+                .register(registry);
+        this.rejectedByBitmap = Counter.builder("board.article.lookup.rejected")
+                .tag("by", "bitmap")
+                .description("DB 를 조회하지 않고 거른 없는 게시글 조회 수")
+                .register(registry);
+        this.rejectedByMissCache = Counter.builder("board.article.lookup.rejected")
+                .tag("by", "miss-cache")
+                .description("DB 를 조회하지 않고 거른 없는 게시글 조회 수")
+                .register(registry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        Thread.ofVirtual().name("article-id-seed").start(this::scan);
+    }
+    
+    /**
+     * seed 가 실패했으면 다시 시도한다.
+     */
+    @Scheduled(initialDelayString = "${board.article-lookup.reseed-interval-ms:600000}",
+               fixedDelayString = "${board.article-lookup.reseed-interval-ms:600000}")
+    public void reseed() {
+        scan();
+    }
+    
+    /**
+     * true 면 게시글이 없는 것이 확실하다. false 면 DB 에서 확인해야 한다.
+     */
+    public boolean isAbsent(long id) {
+        if (misses.getIfPresent(id) != null) {
+            rejectedByMissCache.increment();
+            return true;
+        }
+        if (ready && id <= highWater.get() && !ids.get(id)) {
+            rejectedByBitmap.increment();
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * primary 에서도 없던 id 를 기록한다. 비트가 켜져 있으면 방금 등록돼 아직 커밋 전일 수 있으므로 기억하지 않는다.
+     * 복제본에서 없던 id 는 다른 인스턴스가 등록한 게시글이 아직 복제되지 않은 것일 수 있으므로 부르지 않는다.
+     */
+    public void recordMiss(long id) {
+        if (!ids.get(id))
+            misses.put(id, Boolean.TRUE);
+    }
+    
+    /**
+     * 살아 있는 게시글 id 의 비트를 켜고 high-water mark 를 올린다. 이미 읽는 중이면 건너뛴다.
+     */
+    void scan() {
+        if (!scanning.compareAndSet(false, true))
+            return;
+        
+        try {
+            // 읽는 동안 나눠준 블록이 섞이지 않도록 먼저 본다. 가장 최근 블록과 그 앞 블록은 아직 채워지는 중일 수 있다
+            Long nextValue = jdbcTemplate.queryForObject(NEXT_SEQUENCE_VALUE, Long.class);
+            long sequenceMark = nextValue == null ? 0 : nextValue - 2L * ALLOCATION_SIZE - 1;
+            
+            long after = 0;
+            List<Long> page;
+            do {
+                page = jdbcTemplate.queryForList(SELECT_IDS, Long.class, after, SEED_PAGE_SIZE);
+                page.forEach(ids::set);
+                
+                if (!page.isEmpty())
+                    after = page.get(page.size() - 1);
+            } while (page.size() == SEED_PAGE_SIZE);
+            
+            // 비트를 다 켠 뒤에 올린다
+            highWater.accumulateAndGet(Math.min(after, sequenceMark), Math::max);
+            if (!ready)
+                log.info("게시글 id 비트맵을 채웠습니다. 마지막 id {}", after);
+            ready = true;
+        } catch (RuntimeException e) {
+            log.error("게시글 id 비트맵을 채우지 못했습니다. 비트맵에 없는 게시글도 DB 에서 조회합니다.", e);
+        } finally {
+            scanning.set(false);
+        }
+    }
+    
+    void created(Collection<Long> created) {
+        for (Long id : created) {
+            ids.set(id);
+            misses.invalidate(id);
+        }
+    }
+    
+    // 트랜잭션 안에서 바로 받는다. 롤백되어도 켜진 비트는 DB 를 한 번 더 볼 뿐이다
+    @EventListener
+    public void onCreated(ArticleChangedEvent event) {
+        if (event.getType() == CREATED)
+            created(event.getIds());
+    }
+    
+    // 커밋 전에 DB 를 본 조회가 남긴 음성 결과를 커밋 뒤에 한 번 더 지운다
+    @TransactionalEventListener
+    public void onCommitted(ArticleChangedEvent event) {
+        if (event.getType() == CREATED)
+            misses.invalidateAll(event.getIds());
+        else if (event.getType() == DELETED)
+            event.getIds().forEach(ids::clear);
+    }
+    
+}
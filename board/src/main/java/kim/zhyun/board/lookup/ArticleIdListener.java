@@ -0,0 +1,27 @@
+package kim.zhyun.board.lookup;
+
+import jakarta.persistence.PostPersist;
+import kim.zhyun.board.domain.Article;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+/**
+ * JPA 로 저장된 게시글의 id 를 {@link ArticleIdIndex} 에 켠다. (서비스를 거치지 않는 저장도 포함)
+ * <p>
+ * 엔티티 리스너는 EntityManagerFactory 를 만드는 중에 생성되므로, ArticleIdIndex 는 처음 저장할 때 찾는다.
+ */
+public class ArticleIdListener {
+    
+    private final ObjectProvider<ArticleIdIndex> index;
+    
+    public ArticleIdListener(ObjectProvider<ArticleIdIndex> index) {
+        this.index = index;
+    }
+    
+    @PostPersist
+    public void postPersist(Article article) {
+        index.ifAvailable(articleIds -> articleIds.created(List.of(article.getId())));
+    }
+    
+}
@@ -0,0 +1,47 @@
+package kim.zhyun.board.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 요청 하나가 실행한 SQL 수를 라우트(uri 패턴)별 분포로 기록한다. (board.db.statements.per.request)
+ * 요청을 처리한 스레드에서 실행한 SQL 만 센다. 비동기로 응답을 쓰는 스레드의 SQL 은 들어가지 않는다.
+ */
+@RequiredArgsConstructor
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+    private final StatementCountInspector inspector;
+    private final MeterRegistry registry;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        inspector.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = inspector.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            
+            DistributionSummary.builder("board.db.statements.per.request")
+                    .description("요청 하나가 실행한 SQL 수")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(statements);
+        }
+    }
+    
+}
@@ -0,0 +1,41 @@
+package kim.zhyun.board.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate 가 실행하는 SQL 을 요청 단위로 센다. SQL 은 그대로 돌려준다.
+ * <p>
+ * begin ~ end 사이에 그 스레드가 실행한 SQL 만 센다. 요청 밖의 스레드(쓰기 버퍼 flush, 색인, 스케줄러)가 실행한 SQL 은 세지 않으므로,
+ * 이전 요청이나 다른 작업의 수가 다음 요청에 섞이지 않는다.
+ */
+@Component
+public class StatementCountInspector implements StatementInspector {
+    
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        int[] current = count.get();
+        if (current != null)
+            current[0]++;
+        return sql;
+    }
+    
+    /**
+     * 이 스레드에서 세기 시작한다. 반드시 finally 에서 end 를 부른다.
+     */
+    public void begin() {
+        count.set(new int[1]);
+    }
+    
+    /**
+     * 세기를 끝내고 begin 이후 이 스레드가 실행한 SQL 수를 돌려준다.
+     */
+    public int end() {
+        int[] current = count.get();
+        count.remove();
+        return current == null ? 0 : current[0];
+    }
+    
+}
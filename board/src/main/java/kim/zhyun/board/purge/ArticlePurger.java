@@ -0,0 +1,108 @@
+package kim.zhyun.board.purge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * soft delete 된 게시글을 실제로 지운다.
+ * <p>
+ * off-peak 시간대(비어 있으면 항상)에만, 삭제된 지 grace-period 가 지난 게시글을 batch-size 개씩 지우고
+ * batch 사이마다 pause 만큼 쉰다. 한 번 실행에 max-rows-per-run 건을 넘기면 다음 실행으로 미룬다.
+ * batch 마다 autocommit 되는 짧은 delete 라 조회, 수정과 잠금 경합이 길게 이어지지 않는다.
+ */
+@Slf4j
+@Component
+public class ArticlePurger {
+    private static final String PURGE = "DELETE FROM article WHERE deleted_at < ? LIMIT ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final Duration pause;
+    private final int maxRowsPerRun;
+    private final LocalTime offPeakStart;
+    private final LocalTime offPeakEnd;
+    private final Clock clock;
+    
+    @Autowired
+    public ArticlePurger(JdbcTemplate jdbcTemplate,
+                         @Value("${board.purge.grace-period:1d}") Duration gracePeriod,
+                         @Value("${board.purge.batch-size:200}") int batchSize,
+                         @Value("${board.purge.pause:200ms}") Duration pause,
+                         @Value("${board.purge.max-rows-per-run:20000}") int maxRowsPerRun,
+                         @Value("${board.purge.off-peak:}") String offPeak) {
+        this(jdbcTemplate, gracePeriod, batchSize, pause, maxRowsPerRun, offPeak, Clock.systemDefaultZone());
+    }
+    
+    /**
+     * off-peak 시간대와 grace-period 를 정해진 시각으로 확인하는 테스트용
+     */
+    ArticlePurger(JdbcTemplate jdbcTemplate,
+                  Duration gracePeriod,
+                  int batchSize,
+                  Duration pause,
+                  int maxRowsPerRun,
+                  String offPeak,
+                  Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxRowsPerRun = maxRowsPerRun;
+        
+        // HH:mm-HH:mm, 자정을 넘기는 구간(22:00-04:00)도 가능
+        if (offPeak.isBlank()) {
+            this.offPeakStart = null;
+            this.offPeakEnd = null;
+        } else {
+            String[] range = offPeak.split("-");
+            this.offPeakStart = LocalTime.parse(range[0].trim());
+            this.offPeakEnd = LocalTime.parse(range[1].trim());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${board.purge.interval-ms:60000}")
+    public void purge() {
+        int purged = 0;
+        
+        try {
+            while (purged < maxRowsPerRun && isOffPeak(LocalTime.now(clock))) {
+                int deleted = jdbcTemplate.update(PURGE,
+                                                  LocalDateTime.now(clock).minus(gracePeriod),
+                                                  Math.min(batchSize, maxRowsPerRun - purged));
+                purged += deleted;
+                
+                if (deleted < batchSize)
+                    break;
+                Thread.sleep(pause.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        if (purged > 0)
+            log.info("삭제된 게시글 {} 건을 정리했습니다.", purged);
+    }
+    
+    
+    private boolean isOffPeak(LocalTime now) {
+        if (offPeakStart == null)
+            return true;
+        
+        if (offPeakStart.isBefore(offPeakEnd))
+            return !now.isBefore(offPeakStart) && now.isBefore(offPeakEnd);
+        
+        return !now.isBefore(offPeakStart) || now.isBefore(offPeakEnd);
+    }
+    
+}
@@ -0,0 +1,63 @@
+package kim.zhyun.board.ratelimit;
+
+import kim.zhyun.board.config.RateLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DB 를 쓰는 요청의 동시 실행 수 제한. (AIMD)
+ * <p>
+ * limit 만큼 실행 중이면 커넥션 풀에서 타임아웃까지 기다리게 하지 않고 바로 거절한다.
+ * 응답이 targetLatency 안에 끝나면 limit 를 1/limit 씩(= limit 만큼 끝나면 1) 늘리고, 넘으면 backoffRatio 를 곱해 줄인다.
+ */
+class AdaptiveConcurrencyLimiter {
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    
+    AdaptiveConcurrencyLimiter(RateLimitProperties.Concurrency properties) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.targetLatencyNanos = properties.targetLatency().toNanos();
+        this.backoffRatio = properties.backoffRatio();
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(properties.initialLimit()));
+    }
+    
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit())
+                return false;
+            if (inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+    
+    void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        
+        if (latencyNanos > targetLatencyNanos)
+            limitBits.updateAndGet(bits -> Double.doubleToLongBits(
+                    Math.max(minLimit, Double.longBitsToDouble(bits) * backoffRatio)));
+        // 여유가 있을 때(limit 의 절반도 안 쓸 때)는 늘리지 않는다. 쓰지 않은 limit 가 한없이 커지지 않도록
+        else if (current * 2 >= getLimit())
+            limitBits.updateAndGet(bits -> {
+                double limit = Double.longBitsToDouble(bits);
+                return Double.doubleToLongBits(Math.min(maxLimit, limit + 1 / limit));
+            });
+    }
+    
+    int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+    
+    int getInFlight() {
+        return inFlight.get();
+    }
+    
+}
@@ -0,0 +1,189 @@
+package kim.zhyun.board.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import kim.zhyun.board.config.RateLimitProperties;
+import kim.zhyun.board.data.ApiResponse;
+import kim.zhyun.board.data.type.ExceptionType;
+import kim.zhyun.board.filter.RequestCompletion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static kim.zhyun.board.data.type.ExceptionType.SERVER_OVERLOADED;
+import static kim.zhyun.board.data.type.ExceptionType.TOO_MANY_REQUESTS;
+
+/**
+ * 라우트 규칙(board.rate-limit.routes)에 맞는 요청을 두 단계로 거른다.
+ * <ol>
+ *     <li>클라이언트(IP)별 토큰 버킷이 비었으면 429. 버킷은 크기가 정해진 Caffeine 캐시에 두고, 오래 안 쓴 것부터 버린다.</li>
+ *     <li>dbBound 라우트는 동시 실행 수가 limit 에 닿았으면 503. (AdaptiveConcurrencyLimiter)</li>
+ * </ol>
+ * 동시 실행 자리와 응답 시간은 응답을 다 쓴 뒤에 돌려주고 잰다. (/articles/export 처럼 비동기로 쓰는 요청 포함)
+ * 라우트별 결과는 board.rate-limit.requests{route, result=allowed|throttled|shed} 로 남긴다.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String RETRY_AFTER_OVERLOADED = "1";
+    
+    private final ObjectMapper mapper;
+    private final List<RouteLimit> routes;
+    private final Cache<String, TokenBucket> buckets;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper mapper, MeterRegistry registry) {
+        this.mapper = mapper;
+        this.routes = properties.routes().stream()
+                .map(route -> new RouteLimit(route, registry))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.concurrency());
+        
+        Gauge.builder("board.rate-limit.clients", buckets, Cache::estimatedSize)
+                .description("토큰 버킷을 들고 있는 (클라이언트, 라우트) 수")
+                .register(registry);
+        Gauge.builder("board.rate-limit.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("DB 를 쓰는 요청의 동시 실행 수 제한")
+                .register(registry);
+        Gauge.builder("board.rate-limit.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("실행 중인 DB 를 쓰는 요청 수")
+                .register(registry);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteLimit route = match(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        if (route.limitsClients()) {
+            long now = System.nanoTime();
+            TokenBucket bucket = buckets.get(route.name + "|" + request.getRemoteAddr(),
+                                             key -> new TokenBucket(route.capacity, route.refillPerSecond, now));
+            long waitNanos = bucket.tryAcquire(now);
+            
+            if (waitNanos > 0) {
+                route.throttled.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS,
+                       String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+                return;
+            }
+        }
+        
+        if (!route.dbBound) {
+            route.allowed.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        if (!concurrencyLimiter.tryAcquire()) {
+            route.shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, SERVER_OVERLOADED, RETRY_AFTER_OVERLOADED);
+            return;
+        }
+        
+        route.allowed.increment();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestCompletion.afterCompletion(request, () -> concurrencyLimiter.release(System.nanoTime() - start));
+        }
+    }
+    
+    
+    private RouteLimit match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        
+        for (RouteLimit route : routes)
+            if (route.matches(request.getMethod(), path))
+                return route;
+        
+        return null;
+    }
+    
+    private void reject(HttpServletResponse response,
+                        HttpStatus status,
+                        ExceptionType type,
+                        String retryAfterSeconds) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        mapper.writeValue(response.getOutputStream(), ApiResponse.<Void>builder()
+                .status(false)
+                .message(type.getDescription()).build());
+    }
+    
+    
+    private static class RouteLimit {
+        
+        private final String name;
+        private final List<String> methods;
+        private final List<PathPattern> patterns;
+        private final int capacity;
+        private final double refillPerSecond;
+        private final boolean dbBound;
+        private final Counter allowed;
+        private final Counter throttled;
+        private final Counter shed;
+        
+        private RouteLimit(RateLimitProperties.Route route, MeterRegistry registry) {
+            this.name = route.name();
+            this.methods = route.methods();
+            this.patterns = route.patterns().stream()
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            this.capacity = route.capacity();
+            this.refillPerSecond = route.refillPerSecond();
+            this.dbBound = route.dbBound();
+            this.allowed = counter(registry, "allowed");
+            this.throttled = counter(registry, "throttled");
+            this.shed = counter(registry, "shed");
+        }
+        
+        private boolean limitsClients() {
+            return capacity > 0 && refillPerSecond > 0;
+        }
+        
+        private boolean matches(String method, PathContainer path) {
+            if (!methods.isEmpty() && !methods.contains(method))
+                return false;
+            
+            return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+        
+        private Counter counter(MeterRegistry registry, String result) {
+            return Counter.builder("board.rate-limit.requests")
+                    .description("요청 빈도 / 동시 실행 수 제한 결과")
+                    .tag("route", name)
+                    .tag("result", result)
+                    .register(registry);
+        }
+        
+    }
+    
+}
@@ -0,0 +1,39 @@
+package kim.zhyun.board.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 잠금 없는 토큰 버킷. (GCRA)
+ * <p>
+ * 남은 토큰 수 대신 "다음 요청이 도착해야 할 시각" 하나만 CAS 로 갱신한다.
+ * 그 시각이 지금보다 capacity 개 분량 이상 앞서 있으면 버킷이 빈 것이다.
+ */
+class TokenBucket {
+    
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+    
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+    
+    /**
+     * 통과하면 0, 아니면 토큰이 하나 채워질 때까지 남은 시간(ns)
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            
+            if (next - now > burstNanos)
+                return next - now - burstNanos;
+            
+            if (theoreticalArrival.compareAndSet(current, next))
+                return 0;
+        }
+    }
+    
+}
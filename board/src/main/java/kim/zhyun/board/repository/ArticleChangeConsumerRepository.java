@@ -0,0 +1,18 @@
+package kim.zhyun.board.repository;
+
+import kim.zhyun.board.domain.ArticleChangeConsumer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ArticleChangeConsumerRepository extends JpaRepository<ArticleChangeConsumer, String> {
+    
+    /**
+     * since 이후에 읽은 적이 있는 소비자들 중 가장 뒤처진 seq. 없으면 null
+     */
+    @Query("select min(c.ackedSeq) from ArticleChangeConsumer c where c.ackedAt >= :since")
+    Long findMinAckedSeqSince(@Param("since") LocalDateTime since);
+    
+}
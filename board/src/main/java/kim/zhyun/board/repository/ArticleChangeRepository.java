@@ -0,0 +1,26 @@
+package kim.zhyun.board.repository;
+
+import kim.zhyun.board.data.ArticleChangeDto;
+import kim.zhyun.board.domain.ArticleChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArticleChangeRepository extends JpaRepository<ArticleChange, Long> {
+    
+    List<ArticleChangeDto> findBySeqGreaterThanAndChangedAtBeforeOrderBySeqAsc(long seq, LocalDateTime before, Limit limit);
+    List<ArticleChangeDto> findBySeqGreaterThanOrderBySeqAsc(long seq, Limit limit);
+    
+    /**
+     * ackedSeq 이하이거나 before 이전에 기록된 이력을 지운다.
+     */
+    @Modifying
+    @Query("delete from ArticleChange c where c.seq <= :ackedSeq or c.changedAt < :before")
+    int deleteConsumed(@Param("ackedSeq") long ackedSeq, @Param("before") LocalDateTime before);
+    
+}
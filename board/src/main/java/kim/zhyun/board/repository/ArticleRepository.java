@@ -1,7 +1,68 @@
 package kim.zhyun.board.repository;
 
+import jakarta.persistence.QueryHint;
+import kim.zhyun.board.data.ArticleSummaryDto;
 import kim.zhyun.board.domain.Article;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ArticleRepository extends JpaRepository<Article, Long> {
+    
+    List<Article> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+    List<ArticleSummaryDto> findSummaryByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+    
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Article> streamAllByOrderByIdAsc();
+    
+    /**
+     * version 이 null 이면 버전과 상관없이 수정하고, 값이 있으면 그 버전일 때만 수정한다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Article a
+               set a.title = :title, a.content = :content, a.modifiedAt = :modifiedAt, a.version = a.version + 1
+             where a.id = :id
+               and a.deletedAt is null
+               and (:version is null or a.version = :version)
+            """)
+    int updateTitleAndContent(@Param("id") Long id,
+                              @Param("title") String title,
+                              @Param("content") String content,
+                              @Param("modifiedAt") LocalDateTime modifiedAt,
+                              @Param("version") Long version);
+    
+    /**
+     * deletedAt 만 채우는 soft delete. 이미 삭제된 게시글은 0 건
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Article a
+               set a.deletedAt = :deletedAt
+             where a.id = :id
+               and a.deletedAt is null
+               and (:version is null or a.version = :version)
+            """)
+    int deleteOneById(@Param("id") long id,
+                      @Param("version") Long version,
+                      @Param("deletedAt") LocalDateTime deletedAt);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Article a set a.deletedAt = :deletedAt where a.id in :ids and a.deletedAt is null")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+    
 }
@@ -0,0 +1,8 @@
+package kim.zhyun.board.repository;
+
+import kim.zhyun.board.domain.ArticleStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArticleStatsRepository extends JpaRepository<ArticleStats, Long> {
+    
+}
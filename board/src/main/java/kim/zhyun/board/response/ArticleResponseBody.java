@@ -0,0 +1,158 @@
+package kim.zhyun.board.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import kim.zhyun.board.data.ApiResponse;
+import kim.zhyun.board.data.ArticleDto;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * GET /articles/{id} 의 응답 본문(ApiResponse&lt;ArticleDto&gt;)을 UTF-8 바이트로 미리 만들어 둔 것.
+ * <p>
+ * 조회마다 바뀌는 viewCount 는 본문의 마지막 값이므로, 그 앞(head)과 뒤(tail)만 들고 있다가 숫자만 끼워 복사한다.
+ * gzip 은 head 를 미리 deflate 해 두고(SYNC_FLUSH 로 바이트 경계를 맞춤), 숫자와 tail 은 압축하지 않는 stored 블록으로 이어 붙인다.
+ * <p>
+ * 본문의 viewCount 는 version 이 같아도 바뀌므로 ETag 는 weak(W/"version") 이다.
+ * gzip 본문은 바이트가 다르므로 다른 ETag(W/"version-gzip")를 쓴다. (캐시가 인코딩이 다른 본문으로 304 를 받지 않도록)
+ */
+public class ArticleResponseBody {
+    public static final String GZIP_ETAG_SUFFIX = "-gzip";
+    private static final byte[] PLACEHOLDER = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_SIZE = 8;
+    
+    @Getter private final long version;
+    private final String eTag;
+    private final String gzipETag;
+    @Getter private final long viewCount;
+    private final byte[] head;
+    private final byte[] tail;
+    private final byte[] gzipHead;
+    
+    private ArticleResponseBody(long version, long viewCount, byte[] head, byte[] tail, byte[] gzipHead) {
+        this.version = version;
+        this.eTag = "W/\"" + version + "\"";
+        this.gzipETag = "W/\"" + version + GZIP_ETAG_SUFFIX + "\"";
+        this.viewCount = viewCount;
+        this.head = head;
+        this.tail = tail;
+        this.gzipHead = gzipHead;
+    }
+    
+    /**
+     * 본문이 gzipMinSize 보다 작으면 gzip 본문은 만들지 않는다.
+     */
+    public static ArticleResponseBody of(ArticleDto article, ObjectWriter writer, int gzipMinSize) throws JsonProcessingException {
+        byte[] json = writer.writeValueAsBytes(ApiResponse.<ArticleDto>builder()
+                .status(true)
+                .message("article " + article.getId() + " 조회")
+                .result(article.withViewCount(Long.MIN_VALUE)).build());
+        
+        int at = lastIndexOf(json, PLACEHOLDER);
+        byte[] head = Arrays.copyOfRange(json, 0, at);
+        byte[] tail = Arrays.copyOfRange(json, at + PLACEHOLDER.length, json.length);
+        
+        return new ArticleResponseBody(article.getVersion(),
+                                       article.getViewCount(),
+                                       head,
+                                       tail,
+                                       json.length >= gzipMinSize ? deflate(head) : null);
+    }
+    
+    /**
+     * DB 에 반영된 조회수만 바꾼 본문. 바이트 배열은 바뀌지 않으므로 같이 쓴다.
+     */
+    public ArticleResponseBody withViewCount(long viewCount) {
+        return new ArticleResponseBody(version, viewCount, head, tail, gzipHead);
+    }
+    
+    public boolean supportsGzip() {
+        return gzipHead != null;
+    }
+    
+    public String getETag(boolean gzip) {
+        return gzip ? gzipETag : eTag;
+    }
+    
+    /**
+     * viewCount 를 끼운 본문. gzip 이면 gzip 으로 압축된 본문
+     */
+    public byte[] render(long viewCount, boolean gzip) {
+        byte[] rest = concat(Long.toString(viewCount).getBytes(StandardCharsets.US_ASCII), tail);
+        
+        if (!gzip)
+            return concat(head, rest);
+        
+        // head 까지의 CRC 는 이어서 계산할 수 없어 매번 다시 구한다 (압축보다 훨씬 싸다)
+        CRC32 crc = new CRC32();
+        crc.update(head);
+        crc.update(rest);
+        
+        byte[] storedBlockHeader = {
+                1,  // BFINAL = 1, BTYPE = 00 (stored)
+                (byte) rest.length, (byte) (rest.length >>> 8),
+                (byte) ~rest.length, (byte) (~rest.length >>> 8)
+        };
+        byte[] trailer = new byte[GZIP_TRAILER_SIZE];
+        putIntLE(trailer, 0, (int) crc.getValue());
+        putIntLE(trailer, 4, head.length + rest.length);
+        
+        return concat(GZIP_HEADER, gzipHead, storedBlockHeader, rest, trailer);
+    }
+    
+    
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            
+            int length;
+            do {
+                length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, length);
+            } while (length == buffer.length);
+            
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static int lastIndexOf(byte[] source, byte[] target) {
+        for (int i = source.length - target.length; i >= 0; i--)
+            if (Arrays.equals(source, i, i + target.length, target, 0, target.length))
+                return i;
+        
+        throw new IllegalStateException("viewCount 위치를 찾지 못했습니다.");
+    }
+    
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts)
+            length += part.length;
+        
+        byte[] result = new byte[length];
+        int position = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, position, part.length);
+            position += part.length;
+        }
+        return result;
+    }
+    
+    private static void putIntLE(byte[] target, int offset, int value) {
+        target[offset] = (byte) value;
+        target[offset + 1] = (byte) (value >>> 8);
+        target[offset + 2] = (byte) (value >>> 16);
+        target[offset + 3] = (byte) (value >>> 24);
+    }
+    
+}
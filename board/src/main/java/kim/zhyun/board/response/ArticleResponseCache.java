@@ -0,0 +1,59 @@
+package kim.zhyun.board.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import kim.zhyun.board.cache.StampedCache;
+import kim.zhyun.board.data.ApiResponse;
+import kim.zhyun.board.service.ArticleService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+
+import static kim.zhyun.board.config.CacheConfig.ARTICLE_RESPONSE_CACHE;
+
+/**
+ * 게시글 id 별로 미리 만든 GET /articles/{id} 응답 본문. 게시글이 수정, 삭제되면 ArticleServiceImpl 이 article 캐시와 함께 지우고,
+ * 조회수가 DB 에 반영되면 ArticleViewCounter 가 본문의 조회수만 고친다.
+ */
+@Component
+public class ArticleResponseCache {
+    
+    private final ArticleService service;
+    private final ObjectWriter writer;
+    private final StampedCache cache;
+    private final int gzipMinSize;
+    
+    public ArticleResponseCache(ArticleService service,
+                                ObjectMapper mapper,
+                                CacheManager cacheManager,
+                                @Value("${board.article-response.gzip-min-size:1KB}") DataSize gzipMinSize) {
+        this.service = service;
+        this.writer = mapper.writerFor(ApiResponse.class);
+        this.cache = StampedCache.unwrap(cacheManager.getCache(ARTICLE_RESPONSE_CACHE));
+        this.gzipMinSize = (int) gzipMinSize.toBytes();
+    }
+    
+    /**
+     * 없으면 ArticleService.findById 로 읽어 만든다. 없는 게시글이면 ArticleNotFoundException
+     * 읽는 사이 게시글이 수정, 삭제되어 지워졌으면 만든 본문은 이번 응답에만 쓰고 캐시에 넣지 않는다.
+     */
+    public ArticleResponseBody get(long id) {
+        ArticleResponseBody body = cache.get(id, ArticleResponseBody.class);
+        if (body != null)
+            return body;
+        
+        long stamp = cache.stamp(id);
+        try {
+            body = ArticleResponseBody.of(service.findById(id), writer, gzipMinSize);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        cache.putIfUnchanged(id, body, stamp);
+        return body;
+    }
+    
+}
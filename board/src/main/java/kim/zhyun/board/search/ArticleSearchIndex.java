@@ -0,0 +1,208 @@
+package kim.zhyun.board.search;
+
+import jakarta.annotation.PreDestroy;
+import kim.zhyun.board.data.ArticleSearchResult;
+import kim.zhyun.board.domain.Article;
+import kim.zhyun.board.event.ArticleChangedEvent;
+import kim.zhyun.board.repository.ArticleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static kim.zhyun.board.data.type.ArticleChangeType.DELETED;
+
+/**
+ * 게시글 제목, 내용에 대한 메모리 역색인.
+ * <p>
+ * 기동이 끝나면 전체 게시글을 keyset 페이지 단위로 읽어 병렬로 색인하고,
+ * 이후에는 커밋된 {@link ArticleChangedEvent} 마다 해당 게시글만 다시 읽어 색인을 갱신한다.
+ * 색인 작업은 전용 스레드 하나에서 순서대로 처리하므로 같은 게시글의 수정, 삭제가 뒤바뀌지 않는다.
+ */
+@Slf4j
+@Component
+public class ArticleSearchIndex {
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final Map<String, Float> BOOSTS = Map.of(TITLE, 2.0f, CONTENT, 1.0f);
+    private static final int REBUILD_PAGE_SIZE = 1_000;
+    
+    private final ArticleRepository articleRepository;
+    private final TransactionTemplate primaryRead;
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private final Directory directory = new ByteBuffersDirectory();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "article-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public ArticleSearchIndex(ArticleRepository articleRepository,
+                              PlatformTransactionManager transactionManager) throws IOException {
+        this.articleRepository = articleRepository;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        indexer.execute(this::rebuildAll);
+    }
+    
+    @TransactionalEventListener
+    public void on(ArticleChangedEvent event) {
+        indexer.execute(() -> apply(event));
+    }
+    
+    /**
+     * 관련도 순으로 page 번째 묶음을 돌려준다. 검색어는 문법 없이 단어 그대로 해석하며, 모든 단어를 포함해야 한다.
+     */
+    public List<ArticleSearchResult> search(String text, int page, int size) {
+        if (text == null || text.isBlank())
+            return List.of();
+        
+        Query query;
+        try {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[]{TITLE, CONTENT}, analyzer, BOOSTS);
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            query = parser.parse(QueryParser.escape(text.strip()));
+        } catch (ParseException e) {
+            return List.of();
+        }
+        
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int from = page * size;
+                ScoreDoc[] hits = searcher.search(query, from + size).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                
+                List<ArticleSearchResult> results = new ArrayList<>(Math.max(hits.length - from, 0));
+                for (int i = from; i < hits.length; i++) {
+                    Document document = storedFields.document(hits[i].doc);
+                    results.add(ArticleSearchResult.of(Long.valueOf(document.get(ID)),
+                                                       document.get(TITLE),
+                                                       hits[i].score));
+                }
+                return results;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        indexer.shutdownNow();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        analyzer.close();
+    }
+    
+    void rebuildAll() {
+        try {
+            writer.deleteAll();
+            
+            long after = 0;
+            List<Article> articles;
+            do {
+                articles = articleRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(REBUILD_PAGE_SIZE));
+                articles.parallelStream().forEach(article -> {
+                    try {
+                        writer.addDocument(toDocument(article));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                
+                if (!articles.isEmpty())
+                    after = articles.get(articles.size() - 1).getId();
+            } while (articles.size() == REBUILD_PAGE_SIZE);
+            
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            log.error("게시글 검색 색인을 만들지 못했습니다.", e);
+        }
+    }
+    
+    void apply(ArticleChangedEvent event) {
+        try {
+            if (event.getType() == DELETED) {
+                for (Long id : event.getIds())
+                    writer.deleteDocuments(idTerm(id));
+            } else {
+                // 커밋 이후 다시 읽으므로 그 사이 삭제된 게시글은 색인에서도 지운다.
+                // 복제본은 방금 커밋을 아직 못 받았을 수 있어 readOnly 가 아닌 트랜잭션으로 primary 에서 읽는다
+                Map<Long, Article> articles = primaryRead.execute(status -> articleRepository
+                        .findAllById(event.getIds()).stream()
+                        .collect(Collectors.toMap(Article::getId, Function.identity())));
+                
+                for (Long id : event.getIds()) {
+                    Article article = articles.get(id);
+                    if (article == null)
+                        writer.deleteDocuments(idTerm(id));
+                    else
+                        writer.updateDocument(idTerm(id), toDocument(article));
+                }
+            }
+            
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            log.error("게시글 검색 색인을 갱신하지 못했습니다. {}", event, e);
+        }
+    }
+    
+    
+    private static Term idTerm(long id) {
+        return new Term(ID, Long.toString(id));
+    }
+    
+    private static Document toDocument(Article article) {
+        Document document = new Document();
+        document.add(new StringField(ID, article.getId().toString(), Field.Store.YES));
+        document.add(new TextField(TITLE, article.getTitle(), Field.Store.YES));
+        document.add(new TextField(CONTENT, article.getContent(), Field.Store.NO));
+        return document;
+    }
+    
+}
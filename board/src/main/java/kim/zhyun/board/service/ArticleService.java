@@ -1,19 +1,33 @@
 package kim.zhyun.board.service;
 
+import kim.zhyun.board.data.ArticleChangeDto;
 import kim.zhyun.board.data.ArticleCreateRequest;
 import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.data.ArticleSearchResult;
+import kim.zhyun.board.data.ArticleSummaryDto;
 import kim.zhyun.board.data.ArticleUpdateRequest;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ArticleService {
     
     List<ArticleDto> findAll();
+    List<ArticleDto> findAll(long after, int size);
+    List<ArticleSummaryDto> findAllSummary(long after, int size);
+    void exportAll(Consumer<ArticleDto> consumer);
+    List<ArticleSearchResult> search(String query, int page, int size);
+    long count();
     ArticleDto findById(long id);
     long save(ArticleCreateRequest request);
+    List<Long> saveAll(List<ArticleCreateRequest> requests);
     void update(ArticleUpdateRequest request);
+    void update(ArticleUpdateRequest request, long expectedVersion);
     void deleteOne(long id);
+    void deleteOne(long id, long expectedVersion);
     void deleteMany(Set<Long> ids);
+    List<ArticleChangeDto> findChanges(long afterSeq, int size);
+    void ackChanges(String consumer, long seq);
     
 }
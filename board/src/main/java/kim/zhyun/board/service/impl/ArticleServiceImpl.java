@@ -1,29 +1,109 @@
 package kim.zhyun.board.service.impl;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import kim.zhyun.board.cache.StampedCache;
+import kim.zhyun.board.compression.ContentCompressionPolicy;
+import kim.zhyun.board.concurrent.SingleFlight;
+import kim.zhyun.board.data.ArticleChangeDto;
 import kim.zhyun.board.data.ArticleCreateRequest;
 import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.data.ArticleSearchResult;
+import kim.zhyun.board.data.ArticleSummaryDto;
 import kim.zhyun.board.data.ArticleUpdateRequest;
+import kim.zhyun.board.datasource.ReadWriteRoutingDataSource;
 import kim.zhyun.board.domain.Article;
+import kim.zhyun.board.domain.ArticleChangeConsumer;
+import kim.zhyun.board.event.ArticleChangedEvent;
+import kim.zhyun.board.exception.ArticleLoadTimeoutException;
 import kim.zhyun.board.exception.ArticleNotFoundException;
+import kim.zhyun.board.exception.ArticleVersionConflictException;
+import kim.zhyun.board.lookup.ArticleIdIndex;
+import kim.zhyun.board.repository.ArticleChangeConsumerRepository;
+import kim.zhyun.board.repository.ArticleChangeRepository;
 import kim.zhyun.board.repository.ArticleRepository;
+import kim.zhyun.board.search.ArticleSearchIndex;
 import kim.zhyun.board.service.ArticleService;
-import lombok.RequiredArgsConstructor;
+import kim.zhyun.board.stats.ArticleCounter;
+import kim.zhyun.board.writebehind.ArticleWriteBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static kim.zhyun.board.config.CacheConfig.ARTICLE_CACHE;
+import static kim.zhyun.board.config.CacheConfig.ARTICLE_RESPONSE_CACHE;
+import static kim.zhyun.board.data.type.ExceptionType.ARTICLE_LOAD_TIMEOUT;
 import static kim.zhyun.board.data.type.ExceptionType.ARTICLE_NOT_FOUND;
+import static kim.zhyun.board.data.type.ExceptionType.ARTICLE_VERSION_CONFLICT;
 
-@RequiredArgsConstructor
+@Timed(value = "board.article.service", description = "ArticleService 메서드 실행 시간", histogram = true)
 @Transactional
 @Service
 public class ArticleServiceImpl implements ArticleService {
+    private static final int JDBC_BATCH_SIZE = 50;
+    
     private final ArticleRepository articleRepository;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+    private final ArticleSearchIndex searchIndex;
+    private final ApplicationEventPublisher publisher;
+    private final ContentCompressionPolicy compressionPolicy;
+    private final ArticleWriteBuffer writeBuffer;
+    private final ArticleCounter articleCounter;
+    private final ArticleIdIndex articleIds;
+    private final ArticleChangeRepository changeRepository;
+    private final ArticleChangeConsumerRepository changeConsumerRepository;
+    private final Duration changeSettleTime;
+    private final SingleFlight<Long, ArticleDto> articleLoads;
+    private final StampedCache articleCache;
+    
+    public ArticleServiceImpl(ArticleRepository articleRepository,
+                              EntityManager entityManager,
+                              CacheManager cacheManager,
+                              ArticleSearchIndex searchIndex,
+                              ApplicationEventPublisher publisher,
+                              ContentCompressionPolicy compressionPolicy,
+                              ArticleWriteBuffer writeBuffer,
+                              ArticleCounter articleCounter,
+                              ArticleIdIndex articleIds,
+                              ArticleChangeRepository changeRepository,
+                              ArticleChangeConsumerRepository changeConsumerRepository,
+                              @Value("${board.changes.settle-time:1s}") Duration changeSettleTime,
+                              @Value("${board.article-load.timeout:3s}") Duration articleLoadTimeout) {
+        this.articleRepository = articleRepository;
+        this.entityManager = entityManager;
+        this.cacheManager = cacheManager;
+        this.searchIndex = searchIndex;
+        this.publisher = publisher;
+        this.compressionPolicy = compressionPolicy;
+        this.writeBuffer = writeBuffer;
+        this.articleCounter = articleCounter;
+        this.articleIds = articleIds;
+        this.changeRepository = changeRepository;
+        this.changeConsumerRepository = changeConsumerRepository;
+        this.changeSettleTime = changeSettleTime;
+        this.articleLoads = new SingleFlight<>(articleLoadTimeout);
+        this.articleCache = StampedCache.unwrap(cacheManager.getCache(ARTICLE_CACHE));
+    }
     
+    @Transactional(readOnly = true)
     @Override
     public List<ArticleDto> findAll() {
         return articleRepository
@@ -33,40 +113,224 @@ public class ArticleServiceImpl implements ArticleService {
                 .toList();
     }
     
+    @Transactional(readOnly = true)
+    @Override
+    public List<ArticleDto> findAll(long after, int size) {
+        return articleRepository
+                .findByIdGreaterThanOrderByIdAsc(after, Limit.of(size)).stream()
+                .map(ArticleDto::from)
+                .toList();
+    }
+    
+    @Transactional(readOnly = true)
+    @Override
+    public List<ArticleSummaryDto> findAllSummary(long after, int size) {
+        return articleRepository.findSummaryByIdGreaterThanOrderByIdAsc(after, Limit.of(size));
+    }
+    
+    @Transactional(readOnly = true)
+    @Override
+    public void exportAll(Consumer<ArticleDto> consumer) {
+        try (Stream<Article> articles = articleRepository.streamAllByOrderByIdAsc()) {
+            articles.forEach(article -> {
+                consumer.accept(ArticleDto.from(article));
+                entityManager.detach(article);
+            });
+        }
+    }
+    
+    // 인덱스만 읽으므로 트랜잭션(= DB 커넥션)을 잡지 않는다
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public List<ArticleSearchResult> search(String query, int page, int size) {
+        return searchIndex.search(query, page, size);
+    }
+    
+    // 메모리의 카운터만 읽으므로 트랜잭션(= DB 커넥션)을 잡지 않는다
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public long count() {
+        return articleCounter.get();
+    }
+    
+    /**
+     * 캐시는 직접 채운다. 읽기 전에 받은 stamp 이후로 evict 가 지나갔다면 수정 전 값일 수 있으므로 캐시에 넣지 않는다.
+     */
+    @Transactional(readOnly = true)
     @Override
     public ArticleDto findById(long id) {
-        return ArticleDto.from(articleRepository
-                .findById(id)
-                .orElseThrow(() -> new ArticleNotFoundException(ARTICLE_NOT_FOUND)));
+        ArticleDto cached = articleCache.get(id, ArticleDto.class);
+        if (cached != null)
+            return cached;
+        
+        long stamp = articleCache.stamp(id);
+        ArticleDto article = load(id, stamp);
+        articleCache.putIfUnchanged(id, article, stamp);
+        return article;
     }
     
     @Override
     public long save(ArticleCreateRequest request) {
-        Article saved = articleRepository.save(ArticleCreateRequest.to(request));
+        if (writeBuffer.isEnabled())
+            return writeBuffer.submit(request);
+        
+        Article saved = articleRepository.save(toEntity(request));
+        articleCounter.add(1);
+        publisher.publishEvent(ArticleChangedEvent.created(List.of(saved.getId())));
         
         return saved.getId();
     }
     
     @Override
-    public void update(ArticleUpdateRequest request) {
-        Optional<Article> article = articleRepository.findById(request.getId());
+    public List<Long> saveAll(List<ArticleCreateRequest> requests) {
+        List<Long> ids = new ArrayList<>(requests.size());
         
-        if (article.isEmpty())
-            throw new ArticleNotFoundException(ARTICLE_NOT_FOUND);
+        for (ArticleCreateRequest request : requests) {
+            Article saved = articleRepository.save(toEntity(request));
+            ids.add(saved.getId());
+            
+            // hibernate.jdbc.batch_size 단위로 insert 를 내보내고 영속성 컨텍스트를 비운다
+            if (ids.size() % JDBC_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        articleCounter.add(ids.size());
+        publisher.publishEvent(ArticleChangedEvent.created(ids));
         
-        Article source = article.get();
-        source.setTitle(request.getTitle());
-        source.setContent(request.getContent());
+        return ids;
     }
     
+    @CacheEvict(cacheNames = {ARTICLE_CACHE, ARTICLE_RESPONSE_CACHE}, key = "#request.id")
+    @Override
+    public void update(ArticleUpdateRequest request) {
+        updateIfVersionMatches(request, null);
+    }
+    
+    @CacheEvict(cacheNames = {ARTICLE_CACHE, ARTICLE_RESPONSE_CACHE}, key = "#request.id")
+    @Override
+    public void update(ArticleUpdateRequest request, long expectedVersion) {
+        updateIfVersionMatches(request, expectedVersion);
+    }
+    
+    @CacheEvict(cacheNames = {ARTICLE_CACHE, ARTICLE_RESPONSE_CACHE}, key = "#id")
     @Override
     public void deleteOne(long id) {
-        articleRepository.deleteById(id);
+        writeBuffer.awaitFlushed(List.of(id));
+        int deleted = articleRepository.deleteOneById(id, null, LocalDateTime.now());
+        
+        if (deleted > 0) {
+            articleCounter.add(-deleted);
+            publisher.publishEvent(ArticleChangedEvent.deleted(List.of(id)));
+        }
+    }
+    
+    @CacheEvict(cacheNames = {ARTICLE_CACHE, ARTICLE_RESPONSE_CACHE}, key = "#id")
+    @Override
+    public void deleteOne(long id, long expectedVersion) {
+        writeBuffer.awaitFlushed(List.of(id));
+        int deleted = articleRepository.deleteOneById(id, expectedVersion, LocalDateTime.now());
+        
+        if (deleted == 0) {
+            if (articleRepository.existsById(id))
+                throw new ArticleVersionConflictException(ARTICLE_VERSION_CONFLICT);
+            
+            throw new ArticleNotFoundException(ARTICLE_NOT_FOUND);
+        }
+        
+        articleCounter.add(-deleted);
+        publisher.publishEvent(ArticleChangedEvent.deleted(List.of(id)));
     }
     
     @Override
     public void deleteMany(Set<Long> ids) {
-        articleRepository.deleteAllByIdInBatch(ids);
+        writeBuffer.awaitFlushed(ids);
+        int deleted = articleRepository.deleteAllByIdIn(ids, LocalDateTime.now());
+        articleCounter.add(-deleted);
+        publisher.publishEvent(ArticleChangedEvent.deleted(ids));
+        
+        // TransactionAwareCacheDecorator 라 커밋 이후에 지운다
+        Cache articles = cacheManager.getCache(ARTICLE_CACHE);
+        Cache responses = cacheManager.getCache(ARTICLE_RESPONSE_CACHE);
+        ids.forEach(id -> {
+            articles.evict(id);
+            responses.evict(id);
+        });
+    }
+    
+    /**
+     * 커밋 직전에 seq 를 받은 이력이 seq 순서보다 늦게 커밋될 수 있으므로, 기록된 지 settle-time 이 지난 이력만 돌려준다.
+     * 그래야 afterSeq 로 이어 읽는 소비자가 늦게 커밋된 이력을 건너뛰지 않는다.
+     * <p>
+     * 복제본은 max-lag 까지 뒤처질 수 있어 settle-time 이 지난 이력도 아직 없을 수 있으므로, readOnly 로 복제본에 보내지 않고 primary 에서 읽는다.
+     */
+    @Override
+    public List<ArticleChangeDto> findChanges(long afterSeq, int size) {
+        return changeRepository.findBySeqGreaterThanAndChangedAtBeforeOrderBySeqAsc(afterSeq,
+                                                                                    LocalDateTime.now().minus(changeSettleTime),
+                                                                                    Limit.of(size));
+    }
+    
+    @Override
+    public void ackChanges(String consumer, long seq) {
+        changeConsumerRepository.save(ArticleChangeConsumer.of(consumer, seq, LocalDateTime.now()));
+    }
+    
+    
+    private ArticleDto load(long id, long stamp) {
+        // 쓰기 지연 모드에서 201 을 받았지만 아직 insert 되지 않은 게시글도 조회되도록 버퍼를 먼저 본다
+        Optional<ArticleDto> pending = writeBuffer.pending(id);
+        if (pending.isPresent())
+            return pending.get();
+        
+        // 비트맵이나 음성 결과 캐시로 없는 게시글임이 확실하면 DB 를 조회하지 않는다.
+        // readOnly 트랜잭션은 열렸지만 쿼리 전이므로 커넥션은 아직 잡지 않았다 (LazyConnectionDataSourceProxy)
+        if (articleIds.isAbsent(id))
+            throw new ArticleNotFoundException(ARTICLE_NOT_FOUND);
+        
+        // 같은 게시글을 동시에 조회하면 먼저 온 요청의 select 결과(없는 게시글이면 예외)를 같이 쓴다.
+        // 기다리는 요청은 커넥션을 잡지 않는다 (LazyConnectionDataSourceProxy)
+        // 캐시가 지워진 뒤(stamp 가 오른 뒤)의 요청은 그 전에 시작한 select 에 붙지 않는다
+        try {
+            return articleLoads.load(id, stamp, () -> articleRepository.findById(id)
+                    .map(ArticleDto::from)
+                    .orElseThrow(() -> {
+                        // 복제본에 없던 게시글은 방금 다른 인스턴스가 등록해 아직 복제되지 않았을 수 있다
+                        if (!ReadWriteRoutingDataSource.isReadingReplica())
+                            articleIds.recordMiss(id);
+                        return new ArticleNotFoundException(ARTICLE_NOT_FOUND);
+                    }));
+        } catch (TimeoutException e) {
+            throw new ArticleLoadTimeoutException(ARTICLE_LOAD_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArticleLoadTimeoutException(ARTICLE_LOAD_TIMEOUT);
+        }
+    }
+    
+    private Article toEntity(ArticleCreateRequest request) {
+        Article article = ArticleCreateRequest.to(request);
+        article.setContent(compressionPolicy.toStored(request.getContent()));
+        return article;
+    }
+    
+    private void updateIfVersionMatches(ArticleUpdateRequest request, Long expectedVersion) {
+        writeBuffer.awaitFlushed(List.of(request.getId()));
+        
+        int updated = articleRepository.updateTitleAndContent(request.getId(),
+                                                              request.getTitle(),
+                                                              compressionPolicy.toStored(request.getContent()),
+                                                              LocalDateTime.now(),
+                                                              expectedVersion);
+        if (updated > 0) {
+            publisher.publishEvent(ArticleChangedEvent.updated(request.getId()));
+            return;
+        }
+        
+        if (expectedVersion != null && articleRepository.existsById(request.getId()))
+            throw new ArticleVersionConflictException(ARTICLE_VERSION_CONFLICT);
+        
+        throw new ArticleNotFoundException(ARTICLE_NOT_FOUND);
     }
     
 }
@@ -0,0 +1,105 @@
+package kim.zhyun.board.stats;
+
+import jakarta.annotation.PreDestroy;
+import kim.zhyun.board.domain.ArticleStats;
+import kim.zhyun.board.repository.ArticleRepository;
+import kim.zhyun.board.repository.ArticleStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 전체 게시글 수. GET /articles/count 가 DB 를 세지 않고 바로 응답하도록 메모리에 들고 있는다.
+ * <p>
+ * 등록, 삭제는 실제로 반영된 행 수만큼 커밋된 뒤에 더하고 빼며, 주기적으로 DB 를 세어 어긋난 만큼 맞추고 article_stats 에 남긴다.
+ * 기동할 때는 남겨둔 값에서 시작하므로, 비정상 종료로 잃은 차이는 다음 보정 때 맞춰진다.
+ */
+@Slf4j
+@Component
+public class ArticleCounter {
+    private static final long STATS_ID = 1L;
+    
+    private final ArticleRepository articleRepository;
+    private final ArticleStatsRepository statsRepository;
+    private final TransactionTemplate primaryRead;
+    private final LongAdder count = new LongAdder();
+    
+    public ArticleCounter(ArticleRepository articleRepository,
+                          ArticleStatsRepository statsRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.articleRepository = articleRepository;
+        this.statsRepository = statsRepository;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+    }
+    
+    public long get() {
+        return Math.max(count.sum(), 0);
+    }
+    
+    /**
+     * 트랜잭션 안이면 커밋된 뒤에, 아니면 바로 더한다. 롤백되면 반영하지 않는다.
+     */
+    public void add(long delta) {
+        if (delta == 0)
+            return;
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count.add(delta);
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.add(delta);
+            }
+        });
+    }
+    
+    /**
+     * 남겨둔 값이 없으면(처음 기동) DB 를 한 번 센다. 그 사이 반영된 등록, 삭제는 그대로 둔 채 더한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        statsRepository.findById(STATS_ID).ifPresentOrElse(
+                stats -> count.add(stats.getArticleCount()),
+                this::reconcile);
+    }
+    
+    /**
+     * DB 를 세는 동안 등록, 삭제가 반영되면 어긋난 만큼을 알 수 없으므로 이번에는 맞추지 않고 현재 값만 남긴다.
+     */
+    @Scheduled(initialDelayString = "${board.article-count.reconcile-interval-ms:600000}",
+               fixedDelayString = "${board.article-count.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        long before = count.sum();
+        // 복제본은 뒤처져 있을 수 있어 readOnly 가 아닌 트랜잭션으로 primary 에서 센다
+        long actual = primaryRead.execute(status -> articleRepository.count());
+        long after = count.sum();
+        
+        if (before == after && actual != after) {
+            count.add(actual - after);
+            log.info("게시글 수를 {} 에서 {} 로 맞췄습니다.", after, actual);
+        }
+        persist();
+    }
+    
+    @PreDestroy
+    public void persist() {
+        try {
+            statsRepository.save(ArticleStats.of(STATS_ID, get(), LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("게시글 수를 저장하지 못했습니다.", e);
+        }
+    }
+    
+}
@@ -0,0 +1,199 @@
+package kim.zhyun.board.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import kim.zhyun.board.cache.StampedCache;
+import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.response.ArticleResponseBody;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
+
+import static kim.zhyun.board.config.CacheConfig.ARTICLE_CACHE;
+import static kim.zhyun.board.config.CacheConfig.ARTICLE_RESPONSE_CACHE;
+
+/**
+ * GET /articles/{id} 조회수.
+ * <p>
+ * 조회마다 UPDATE 하지 않고 게시글별 LongAdder 에 더해두었다가(같은 게시글을 동시에 조회해도 셀이 나뉘어 경합하지 않는다)
+ * flush-interval 마다 모인 만큼을 batch UPDATE 한 번으로 더한다. 캐시된 게시글과 응답 본문은 지우지 않고 더한 만큼 조회수만 고친다.
+ * (자주 조회되는 게시글일수록 flush 마다 다시 읽고 직렬화하게 되므로)
+ * <ul>
+ *     <li>비정상 종료 시 잃는 조회수는 최대 flush-interval 동안의 조회. 정상 종료 시에는 남은 조회수를 반영한다.</li>
+ *     <li>모아둘 게시글 수는 max-ids 까지. 넘치면 flush 를 앞당기고, 그 사이 처음 조회된 게시글의 조회는 세지 않는다.</li>
+ *     <li>UPDATE 가 실패하면 다음 flush 때 다시 더한다. batch UPDATE 는 한 트랜잭션으로 실행하므로 일부만 반영되어 두 번 더해지지 않는다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ArticleViewCounter {
+    private static final String ADD_VIEWS = "UPDATE article SET view_count = view_count + ? WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StampedCache articleCache;
+    private final StampedCache responseCache;
+    private final long flushIntervalNanos;
+    private final int maxIds;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Counter dropped;
+    
+    // UPDATE 중인 조회수. 커밋되고 캐시된 조회수를 고치기 전까지 조회수에 포함한다
+    private volatile Map<Long, Long> flushing = Map.of();
+    private volatile boolean running;
+    private volatile Thread flushThread;
+    
+    public ArticleViewCounter(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              CacheManager cacheManager,
+                              MeterRegistry registry,
+                              @Value("${board.view-count.flush-interval:1s}") Duration flushInterval,
+                              @Value("${board.view-count.max-ids:100000}") int maxIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.articleCache = StampedCache.unwrap(cacheManager.getCache(ARTICLE_CACHE));
+        this.responseCache = StampedCache.unwrap(cacheManager.getCache(ARTICLE_RESPONSE_CACHE));
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxIds = maxIds;
+        
+        Gauge.builder("board.article.views.pending", pending, Map::size)
+                .description("DB 에 반영되지 않은 조회수가 있는 게시글 수")
+                .register(registry);
+        this.dropped = Counter.builder("board.article.views.dropped")
+                .description("max-ids 를 넘어 세지 않은 조회 수")
+                .register(registry);
+    }
+    
+    /**
+     * 조회수를 하나 올리고, DB 에 반영된 조회수(viewCount)에 아직 반영되지 않은 조회수를 더해 돌려준다.
+     */
+    public long view(long id, long viewCount) {
+        increment(id, 1);
+        
+        return viewCount + unflushed(id);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        flushThread = Thread.ofPlatform().daemon().name("article-view-flush").start(this::flushLoop);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        
+        Thread thread = flushThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join();
+        }
+        flush();
+    }
+    
+    
+    private void increment(long id, long views) {
+        LongAdder adder = pending.get(id);
+        
+        if (adder == null) {
+            if (pending.size() >= maxIds) {
+                dropped.increment();
+                LockSupport.unpark(flushThread);
+                return;
+            }
+            adder = pending.computeIfAbsent(id, key -> new LongAdder());
+        }
+        adder.add(views);
+    }
+    
+    private long unflushed(long id) {
+        LongAdder adder = pending.get(id);
+        return (adder == null ? 0 : adder.sum()) + flushing.getOrDefault(id, 0L);
+    }
+    
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("조회수를 반영하지 못했습니다.", e);
+            }
+        }
+    }
+    
+    private synchronized void flush() {
+        if (pending.isEmpty())
+            return;
+        
+        Map<Long, Long> views = new ConcurrentHashMap<>();
+        flushing = views;
+        
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            
+            if (count > 0) {
+                views.put(entry.getKey(), count);
+                continue;
+            }
+            
+            // 한 주기 동안 조회가 없던 게시글은 비운다. 지우는 사이 더해진 조회는 새 LongAdder 로 옮긴다
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                long late = entry.getValue().sumThenReset();
+                if (late > 0)
+                    increment(entry.getKey(), late);
+            }
+        }
+        
+        if (views.isEmpty()) {
+            flushing = Map.of();
+            return;
+        }
+        
+        List<Object[]> batch = new ArrayList<>(views.size());
+        views.forEach((id, count) -> {
+            batch.add(new Object[]{count, id});
+            // UPDATE 와 겹쳐 읽은 조회수가 캐시에 들어가지 않도록
+            articleCache.beginUpdate(id);
+            responseCache.beginUpdate(id);
+        });
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(ADD_VIEWS, batch));
+        } catch (RuntimeException e) {
+            views.forEach((id, count) -> {
+                articleCache.endUpdate(id, UnaryOperator.identity());
+                responseCache.endUpdate(id, UnaryOperator.identity());
+                increment(id, count);
+            });
+            flushing = Map.of();
+            throw e;
+        }
+        
+        views.forEach((id, count) -> {
+            articleCache.<ArticleDto>endUpdate(id, article -> article.withViewCount(article.getViewCount() + count));
+            responseCache.<ArticleResponseBody>endUpdate(id, body -> body.withViewCount(body.getViewCount() + count));
+            views.remove(id);
+        });
+        flushing = Map.of();
+    }
+    
+}
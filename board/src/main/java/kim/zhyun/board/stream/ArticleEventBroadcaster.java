@@ -0,0 +1,233 @@
+package kim.zhyun.board.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kim.zhyun.board.data.ArticleChangeDto;
+import kim.zhyun.board.event.ArticleChangesRecordedEvent;
+import kim.zhyun.board.repository.ArticleChangeRepository;
+import kim.zhyun.board.service.ArticleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * GET /articles/stream 구독자에게 커밋된 게시글 변경을 SSE 로 전달한다.
+ * <p>
+ * 구독자마다 크기가 정해진 큐를 두고, 이벤트는 큐에 넣기만 한다. 큐가 비어 있지 않은 구독자만 가상 스레드가 잠깐 붙어 전송하므로
+ * 대기 중인 연결은 스레드를 잡지 않는다. 큐가 가득 찰 만큼 느린 구독자는 연결을 끊고,
+ * 다시 연결할 때 보낸 Last-Event-ID(= 변경 이력 seq) 이후의 이력을 DB 에서 이어서 보내준다.
+ * <p>
+ * 커밋 직전에 seq 를 받은 이력은 seq 순서보다 늦게 커밋될 수 있다. 그래서 다시 보낼 때는 GET /articles/changes 처럼
+ * settle-time 이 지난 이력에만 id 를 붙이고, 그 뒤의 이력은 id 없이 보낸다. (SSE 클라이언트는 id 가 없는 이벤트로는 Last-Event-ID 를 바꾸지 않는다)
+ * 그 사이 끊겨도 Last-Event-ID 는 settle-time 이 지난 이력에 머물러 있으므로, 늦게 커밋된 이력을 건너뛰지 않고 다시 받는다.
+ */
+@Slf4j
+@Component
+public class ArticleEventBroadcaster {
+    private static final String EVENT_RESET = "reset";
+    static final int MAX_REPLAY = 10_000;
+    
+    private final ArticleService articleService;
+    private final ArticleChangeRepository changeRepository;
+    private final ObjectMapper mapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter evictions;
+    
+    public ArticleEventBroadcaster(ArticleService articleService,
+                                   ArticleChangeRepository changeRepository,
+                                   ObjectMapper mapper,
+                                   MeterRegistry registry,
+                                   @Value("${board.stream.buffer-size:256}") int bufferSize,
+                                   @Value("${board.stream.timeout:30m}") Duration timeout) {
+        this.articleService = articleService;
+        this.changeRepository = changeRepository;
+        this.mapper = mapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        
+        Gauge.builder("board.stream.subscribers", subscribers, Set::size)
+                .description("GET /articles/stream 구독자 수")
+                .register(registry);
+        this.evictions = Counter.builder("board.stream.evictions")
+                .description("큐가 가득 차 연결을 끊은 느린 구독자 수")
+                .register(registry);
+    }
+    
+    /**
+     * lastEventId 가 있으면 그 이후 이력을 먼저 보내고 실시간 이벤트를 이어 보낸다.
+     * 다시 보낼 이력이 MAX_REPLAY 를 넘으면 reset 이벤트를 보내 GET /articles/changes 로 따라잡게 한다.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        Subscriber subscriber = new Subscriber(createEmitter(), new ArrayBlockingQueue<>(bufferSize));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        
+        // 다시 보내는 동안 들어온 실시간 이벤트는 큐에 쌓아두기만 한다
+        subscriber.draining.set(true);
+        subscribers.add(subscriber);
+        
+        try {
+            if (lastEventId != null)
+                replay(subscriber, lastEventId);
+        } catch (IOException | RuntimeException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return subscriber.emitter;
+        }
+        
+        subscriber.draining.set(false);
+        drain(subscriber);
+        return subscriber.emitter;
+    }
+    
+    @TransactionalEventListener
+    public void on(ArticleChangesRecordedEvent event) {
+        for (ArticleChangeDto change : event.getChanges()) {
+            Frame frame = toFrame(change);
+            subscribers.forEach(subscriber -> offer(subscriber, frame));
+        }
+    }
+    
+    /**
+     * 프록시, 로드밸런서가 유휴 연결을 끊지 않도록, 끊긴 연결은 전송 실패로 정리되도록 주석 한 줄을 보낸다.
+     */
+    @Scheduled(fixedDelayString = "${board.stream.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, Frame.HEARTBEAT));
+    }
+    
+    /**
+     * 구독마다 새 연결. 테스트에서 보낸 이벤트를 확인하려고 바꿔 끼운다
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+    
+    
+    private void replay(Subscriber subscriber, long lastEventId) throws IOException {
+        List<ArticleChangeDto> settled = articleService.findChanges(lastEventId, MAX_REPLAY + 1);
+        long settledSeq = settled.isEmpty() ? lastEventId : settled.get(settled.size() - 1).getSeq();
+        List<ArticleChangeDto> unsettled = settled.size() > MAX_REPLAY
+                ? List.of()
+                : changeRepository.findBySeqGreaterThanOrderBySeqAsc(settledSeq, Limit.of(MAX_REPLAY + 1 - settled.size()));
+        
+        if (settled.size() + unsettled.size() > MAX_REPLAY) {
+            subscriber.emitter.send(SseEmitter.event().name(EVENT_RESET).data(lastEventId));
+            return;
+        }
+        
+        Set<Long> replayed = new HashSet<>();
+        for (ArticleChangeDto change : settled) {
+            subscriber.emitter.send(toFrame(change).toEvent());
+            replayed.add(change.getSeq());
+        }
+        for (ArticleChangeDto change : unsettled) {
+            subscriber.emitter.send(toFrame(change).toEventWithoutId());
+            replayed.add(change.getSeq());
+        }
+        subscriber.queue.removeIf(frame -> frame.seq != null && replayed.contains(frame.seq));
+    }
+    
+    private void offer(Subscriber subscriber, Frame frame) {
+        if (!subscriber.queue.offer(frame)) {
+            evict(subscriber);
+            return;
+        }
+        drain(subscriber);
+    }
+    
+    private void drain(Subscriber subscriber) {
+        if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true))
+            return;
+        
+        Thread.ofVirtual().name("article-stream-drain").start(() -> {
+            do {
+                try {
+                    Frame frame;
+                    while ((frame = subscriber.queue.poll()) != null)
+                        subscriber.emitter.send(frame.toEvent());
+                } catch (IOException | IllegalStateException e) {
+                    // 클라이언트가 끊었거나 이미 완료된 연결
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                } finally {
+                    subscriber.draining.set(false);
+                }
+                // 플래그를 내린 사이 들어온 이벤트가 있으면 이어서 보낸다
+            } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+        });
+    }
+    
+    private void evict(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber))
+            return;
+        
+        evictions.increment();
+        subscriber.queue.clear();
+        subscriber.emitter.complete();
+    }
+    
+    private Frame toFrame(ArticleChangeDto change) {
+        try {
+            return new Frame(change.getSeq(), change.getType().name(), mapper.writeValueAsString(change));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    
+    private record Subscriber(SseEmitter emitter, BlockingQueue<Frame> queue, AtomicBoolean draining) {
+        
+        private Subscriber(SseEmitter emitter, BlockingQueue<Frame> queue) {
+            this(emitter, queue, new AtomicBoolean());
+        }
+        
+    }
+    
+    /**
+     * 구독자 수와 상관없이 이벤트마다 한 번만 직렬화한다.
+     */
+    private record Frame(Long seq, String name, String data) {
+        private static final Frame HEARTBEAT = new Frame(null, null, null);
+        
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (seq == null)
+                return SseEmitter.event().comment("heartbeat");
+            
+            return SseEmitter.event()
+                    .id(String.valueOf(seq))
+                    .name(name)
+                    .data(data, MediaType.APPLICATION_JSON);
+        }
+        
+        private SseEmitter.SseEventBuilder toEventWithoutId() {
+            return SseEmitter.event()
+                    .name(name)
+                    .data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+    
+}
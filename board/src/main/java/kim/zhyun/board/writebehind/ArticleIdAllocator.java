@@ -0,0 +1,33 @@
+package kim.zhyun.board.writebehind;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Article 엔티티와 같은 article_seq 에서 id 블록을 받아 하나씩 나눠준다.
+ * <p>
+ * 시퀀스는 50 씩 증가하고 받은 값을 블록의 시작 id 로 쓰므로(pooled-lo) Hibernate 가 받아 가는 블록과 겹치지 않는다.
+ */
+class ArticleIdAllocator {
+    // Article 의 @SequenceGenerator allocationSize, schema.sql 의 INCREMENT BY 와 같아야 한다
+    private static final int ALLOCATION_SIZE = 50;
+    private static final String NEXT_BLOCK = "SELECT NEXT VALUE FOR article_seq";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private long next;
+    private long limit;
+    
+    ArticleIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    synchronized long next() {
+        if (next == limit) {
+            Long start = jdbcTemplate.queryForObject(NEXT_BLOCK, Long.class);
+            next = start;
+            limit = start + ALLOCATION_SIZE;
+        }
+        return next++;
+    }
+    
+}
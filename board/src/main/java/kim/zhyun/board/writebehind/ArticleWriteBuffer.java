@@ -0,0 +1,424 @@
+package kim.zhyun.board.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import kim.zhyun.board.compression.ContentCompressionPolicy;
+import kim.zhyun.board.data.ArticleCreateRequest;
+import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.event.ArticleChangedEvent;
+import kim.zhyun.board.exception.ArticleWriteRejectedException;
+import kim.zhyun.board.stats.ArticleCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static kim.zhyun.board.data.type.ExceptionType.ARTICLE_WRITE_REJECTED;
+
+/**
+ * 쓰기 지연(write-behind) 모드의 게시글 등록 버퍼. board.write-behind.enabled 가 켜져 있을 때만 동작한다.
+ * <p>
+ * 등록 요청은 미리 받아 둔 id 블록에서 id 를 받아 lock-free 큐에 들어가고,
+ * 저널 스레드가 쌓인 요청을 한 번에 저널에 쓰고 fsync 하면 그제서야 201 로 응답한다.
+ * 플러시 스레드는 저널에 기록된 게시글을 batch-size 개씩 한 트랜잭션으로 insert 한다.
+ * <p>
+ * 저널은 insert 가 끝난 앞부분부터 세그먼트 단위로 지우고, 기동할 때 저널에 남은 게시글 중 DB 에 없는 것을 다시 insert 한다.
+ * <ul>
+ *     <li>저널에 기록되기 전에 대기 시간이 지나면 요청을 취소하고 503 으로 응답한다. 취소된 요청은 저널에도 DB 에도 쓰지 않는다.
+ *     저널 스레드가 이미 가져간 요청은 기록 결과가 나올 때까지 기다린다. (201 로 응답하지 않은 게시글이 등록되지 않도록)</li>
+ *     <li>DB 연결 문제처럼 일시적인 오류는 같은 묶음을 다시 insert 하고, 제약 조건 위반처럼 다시 해도 안 되는 오류는
+ *     묶음을 반씩 나눠 insert 해서 문제 있는 게시글만 dead-letter 파일(저널 경로.dead)로 보낸다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ArticleWriteBuffer {
+    private static final String INSERT = "INSERT INTO article (id, title, content, created_at, modified_at, version, view_count) VALUES (?, ?, ?, ?, ?, 0, 0)";
+    private static final String SELECT_EXISTING = "SELECT id FROM article WHERE id IN (%s)";
+    private static final long JOURNAL_TIMEOUT_MILLIS = 5_000;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5_000;
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+    private static final String DEAD_LETTER_SUFFIX = ".dead";
+    
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final int segmentSize;
+    private final Path journalPath;
+    private final ObjectMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final ContentCompressionPolicy compressionPolicy;
+    private final ArticleCounter articleCounter;
+    private final ArticleIdAllocator idAllocator;
+    
+    private final Queue<Submission> accepted = new ConcurrentLinkedQueue<>();
+    private final BlockingQueue<Submission> journaled = new LinkedBlockingQueue<>();
+    private final Map<Long, Submission> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong committedCount = new AtomicLong();
+    
+    private WriteBehindJournal journal;
+    private volatile boolean running;
+    private volatile Thread journalThread;
+    private Thread flushThread;
+    
+    public ArticleWriteBuffer(@Value("${board.write-behind.enabled:false}") boolean enabled,
+                              @Value("${board.write-behind.capacity:10000}") int capacity,
+                              @Value("${board.write-behind.batch-size:500}") int batchSize,
+                              @Value("${board.write-behind.segment-size:10000}") int segmentSize,
+                              @Value("${board.write-behind.journal:./h2/article-write-behind.journal}") Path journalPath,
+                              ObjectMapper mapper,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher publisher,
+                              ContentCompressionPolicy compressionPolicy,
+                              ArticleCounter articleCounter) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.segmentSize = segmentSize;
+        this.journalPath = journalPath;
+        this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.compressionPolicy = compressionPolicy;
+        this.articleCounter = articleCounter;
+        this.idAllocator = new ArticleIdAllocator(jdbcTemplate);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 저널에 fsync 될 때까지 기다렸다가 id 를 돌려준다.
+     * 종료 중이거나, 버퍼가 가득 찼거나, 저널에 쓰지 못했거나, 저널에 쓰기 전에 대기 시간이 지나면 ArticleWriteRejectedException
+     */
+    public long submit(ArticleCreateRequest request) {
+        if (!running)
+            throw new ArticleWriteRejectedException(ARTICLE_WRITE_REJECTED);
+        
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            throw new ArticleWriteRejectedException(ARTICLE_WRITE_REJECTED);
+        }
+        
+        PendingArticle article = new PendingArticle(idAllocator.next(),
+                                                    request.getTitle(),
+                                                    request.getContent(),
+                                                    LocalDateTime.now());
+        Submission submission = new Submission(article);
+        pending.put(article.id(), submission);
+        accepted.offer(submission);
+        LockSupport.unpark(journalThread);
+        
+        try {
+            submission.journaled.get(JOURNAL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return article.id();
+        } catch (ExecutionException e) {
+            throw new ArticleWriteRejectedException(ARTICLE_WRITE_REJECTED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            // 아래에서 취소하거나 기다린다
+        }
+        
+        if (submission.cancel()) {
+            accepted.remove(submission);
+            pending.remove(article.id());
+            size.decrementAndGet();
+            throw new ArticleWriteRejectedException(ARTICLE_WRITE_REJECTED);
+        }
+        
+        // 저널 스레드가 이미 가져갔으므로 곧 기록되거나 실패한다. 기록되면 insert 되므로 201 로 응답해야 한다
+        try {
+            submission.journaled.join();
+            return article.id();
+        } catch (CompletionException e) {
+            throw new ArticleWriteRejectedException(ARTICLE_WRITE_REJECTED);
+        }
+    }
+    
+    /**
+     * 아직 DB 에 insert 되지 않은 게시글
+     */
+    public Optional<ArticleDto> pending(long id) {
+        Submission submission = pending.get(id);
+        return submission == null ? Optional.empty() : Optional.of(submission.article.toDto());
+    }
+    
+    /**
+     * 수정, 삭제 전에 대상 게시글이 아직 버퍼에 있으면 insert 될 때까지 기다린다.
+     * 대기 시간 안에 insert 되지 않으면 ArticleWriteRejectedException. (insert 전의 게시글을 404 로 응답하지 않도록)
+     * dead-letter 로 보낸 게시글은 DB 에 없으므로 기다리지 않고 넘어간다.
+     */
+    public void awaitFlushed(Collection<Long> ids) {
+        for (Long id : ids) {
+            Submission submission = pending.get(id);
+            if (submission == null)
+                continue;
+            
+            try {
+                submission.flushed.get(FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ArticleWriteRejectedException(ARTICLE_WRITE_REJECTED);
+            } catch (TimeoutException e) {
+                log.warn("게시글 {} 의 insert 를 {}ms 안에 마치지 못했습니다.", id, FLUSH_TIMEOUT_MILLIS);
+                throw new ArticleWriteRejectedException(ARTICLE_WRITE_REJECTED);
+            } catch (ExecutionException e) {
+                // dead-letter 로 보낸 게시글
+            }
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException, InterruptedException {
+        if (!enabled)
+            return;
+        
+        journal = new WriteBehindJournal(journalPath, mapper, segmentSize);
+        replay();
+        
+        running = true;
+        journalThread = Thread.ofPlatform().daemon().name("article-write-behind-journal").start(this::journalLoop);
+        flushThread = Thread.ofPlatform().daemon().name("article-write-behind-flush").start(this::flushLoop);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!running)
+            return;
+        
+        // 새 요청은 더 받지 않고, 받은 요청은 저널에 쓰고 insert 까지 마친 뒤 종료
+        running = false;
+        LockSupport.unpark(journalThread);
+        journalThread.join(FLUSH_TIMEOUT_MILLIS);
+        flushThread.join(FLUSH_TIMEOUT_MILLIS);
+        flushThread.interrupt();
+        journal.close();
+    }
+    
+    
+    private void journalLoop() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        
+        while (running || !accepted.isEmpty()) {
+            Submission submission;
+            while (batch.size() < batchSize && (submission = accepted.poll()) != null) {
+                // 대기 시간이 지나 취소된 요청은 쓰지 않는다
+                if (submission.claim())
+                    batch.add(submission);
+            }
+            
+            releaseCommitted();
+            if (batch.isEmpty()) {
+                // submit, 플러시 스레드의 커밋, stop 이 깨운다
+                LockSupport.park(this);
+                continue;
+            }
+            
+            try {
+                journal.append(batch.stream().map(Submission::article).toList());
+                journaled.addAll(batch);
+                batch.forEach(journaledSubmission -> journaledSubmission.journaled.complete(null));
+            } catch (IOException | RuntimeException e) {
+                log.error("저널에 {} 건을 쓰지 못했습니다.", batch.size(), e);
+                batch.forEach(failed -> discard(failed, e));
+            }
+            batch.clear();
+        }
+    }
+    
+    private void releaseCommitted() {
+        try {
+            journal.release(committedCount.get());
+        } catch (IOException e) {
+            log.warn("insert 가 끝난 저널을 지우지 못했습니다.", e);
+        }
+    }
+    
+    private void flushLoop() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        
+        while (running || journalThread.isAlive() || !journaled.isEmpty()) {
+            try {
+                Submission first = journaled.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                
+                batch.add(first);
+                journaled.drainTo(batch, batchSize - 1);
+                insertOrDeadLetter(batch.stream().map(Submission::article).toList())
+                        .forEach((id, cause) -> pending.get(id).flushed.completeExceptionally(cause));
+            } catch (InterruptedException e) {
+                // 종료 시간 안에 insert 하지 못한 게시글은 저널에 남아 다음 기동 때 insert 된다
+                log.warn("쓰기 지연 버퍼를 비우지 못하고 종료합니다. (저널에 남은 게시글은 다음 기동 때 insert)");
+                return;
+            }
+            
+            // dead-letter 로 보낸 게시글도 저널에서는 처리가 끝난 것으로 본다
+            committedCount.addAndGet(batch.size());
+            size.addAndGet(-batch.size());
+            batch.forEach(committed -> {
+                pending.remove(committed.article.id());
+                committed.flushed.complete(null);
+            });
+            batch.clear();
+            // insert 가 끝난 저널을 지우도록 저널 스레드를 깨운다
+            LockSupport.unpark(journalThread);
+        }
+    }
+    
+    /**
+     * 커밋될 때까지 insert 한다. 다시 해도 안 되는 오류는 묶음을 반씩 나눠 insert 하고, 한 건만 남으면 dead-letter 로 보낸다.
+     *
+     * @return dead-letter 로 보낸 게시글 id 와 원인
+     */
+    private Map<Long, RuntimeException> insertOrDeadLetter(List<PendingArticle> articles) throws InterruptedException {
+        while (true) {
+            try {
+                insert(articles);
+                return Map.of();
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    log.warn("게시글 {} 건을 insert 하지 못해 {}ms 후 다시 시도합니다.", articles.size(), RETRY_DELAY_MILLIS, e);
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                    continue;
+                }
+                
+                if (articles.size() == 1) {
+                    deadLetter(articles.get(0), e);
+                    return Map.of(articles.get(0).id(), e);
+                }
+                
+                int half = articles.size() / 2;
+                Map<Long, RuntimeException> failed = new HashMap<>(insertOrDeadLetter(articles.subList(0, half)));
+                failed.putAll(insertOrDeadLetter(articles.subList(half, articles.size())));
+                return failed;
+            }
+        }
+    }
+    
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+    
+    private void deadLetter(PendingArticle article, RuntimeException cause) {
+        log.error("게시글 {} 을 insert 할 수 없어 dead-letter 로 보냅니다.", article.id(), cause);
+        
+        Path deadLetters = journalPath.resolveSibling(journalPath.getFileName() + DEAD_LETTER_SUFFIX);
+        try {
+            Files.write(deadLetters,
+                        List.of(mapper.writeValueAsString(article)),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            log.error("dead-letter 파일에 쓰지 못했습니다. {}", article, e);
+        }
+    }
+    
+    private void insert(List<PendingArticle> articles) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int[][] inserted = jdbcTemplate.batchUpdate(INSERT, articles, articles.size(), (ps, article) -> {
+                Timestamp createdAt = Timestamp.valueOf(article.createdAt());
+                ps.setLong(1, article.id());
+                ps.setString(2, article.title());
+                ps.setString(3, compressionPolicy.toStored(article.content()));
+                ps.setTimestamp(4, createdAt);
+                ps.setTimestamp(5, createdAt);
+            });
+            articleCounter.add(Arrays.stream(inserted).flatMapToInt(Arrays::stream).map(rows -> rows == Statement.SUCCESS_NO_INFO ? 1 : Math.max(rows, 0)).sum());
+            publisher.publishEvent(ArticleChangedEvent.created(articles.stream().map(PendingArticle::id).toList()));
+        });
+    }
+    
+    private void replay() throws IOException, InterruptedException {
+        List<PendingArticle> journaledArticles = journal.readAll();
+        int replayed = 0;
+        
+        for (int from = 0; from < journaledArticles.size(); from += batchSize) {
+            List<PendingArticle> chunk = journaledArticles.subList(from, Math.min(from + batchSize, journaledArticles.size()));
+            
+            String placeholders = chunk.stream().map(article -> "?").collect(Collectors.joining(", "));
+            Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING.formatted(placeholders),
+                                                                         Long.class,
+                                                                         chunk.stream().map(PendingArticle::id).toArray()));
+            List<PendingArticle> missing = chunk.stream()
+                    .filter(article -> !existing.contains(article.id()))
+                    .toList();
+            
+            if (!missing.isEmpty())
+                replayed += missing.size() - insertOrDeadLetter(missing).size();
+        }
+        
+        journal.clear();
+        if (replayed > 0)
+            log.info("저널에 남아 있던 게시글 {} 건을 insert 했습니다.", replayed);
+    }
+    
+    private void discard(Submission submission, Exception cause) {
+        pending.remove(submission.article.id());
+        size.decrementAndGet();
+        submission.journaled.completeExceptionally(cause);
+        submission.flushed.completeExceptionally(cause);
+    }
+    
+    
+    private record Submission(PendingArticle article,
+                              AtomicInteger state,
+                              CompletableFuture<Void> journaled,
+                              CompletableFuture<Void> flushed) {
+        private static final int WAITING = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+        
+        private Submission(PendingArticle article) {
+            this(article, new AtomicInteger(WAITING), new CompletableFuture<>(), new CompletableFuture<>());
+        }
+        
+        /**
+         * 저널 스레드가 쓰기 전에 가져간다. 이미 취소됐으면 false
+         */
+        private boolean claim() {
+            return state.compareAndSet(WAITING, CLAIMED);
+        }
+        
+        /**
+         * 저널 스레드가 가져가기 전이면 취소한다. 이미 가져갔으면 false
+         */
+        private boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+        
+    }
+    
+}
@@ -0,0 +1,16 @@
+package kim.zhyun.board.writebehind;
+
+import kim.zhyun.board.data.ArticleDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 저널에 기록되고 아직 DB 에 insert 되지 않은 게시글. 저널에는 한 줄에 하나씩 JSON 으로 쓴다.
+ */
+record PendingArticle(long id, String title, String content, LocalDateTime createdAt) {
+    
+    ArticleDto toDto() {
+        return ArticleDto.of(id, title, content, createdAt, createdAt, 0L, 0L);
+    }
+    
+}
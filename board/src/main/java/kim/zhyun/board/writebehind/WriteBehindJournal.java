@@ -0,0 +1,193 @@
+package kim.zhyun.board.writebehind;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * 쓰기 지연 모드의 로컬 저널. 묶음 단위로 이어 쓰고 fsync 를 한 번만 한다. (group commit)
+ * <p>
+ * 저널은 segment-size 건마다 새 파일(path.1, path.2, ...)로 나눠 쓴다. 게시글은 쓴 순서대로 insert 되므로
+ * 몇 번째 게시글까지 insert 됐는지(committed offset)만 알면 그 앞의 세그먼트는 통째로 지울 수 있다.
+ * 그래서 요청이 계속 들어와 버퍼가 비지 않아도 저널과 다음 기동 때의 재처리 양이 세그먼트 몇 개로 유지된다.
+ * <p>
+ * 저널 스레드 하나만 쓰고 지우므로 동기화하지 않는다.
+ */
+@Slf4j
+class WriteBehindJournal implements Closeable {
+    
+    private final Path path;
+    private final ObjectMapper mapper;
+    private final long segmentSize;
+    private final Deque<Segment> closed = new ArrayDeque<>();
+    
+    private FileChannel channel;
+    private Path currentPath;
+    private long currentStart;
+    private long appended;
+    private long nextIndex;
+    
+    WriteBehindJournal(Path path, ObjectMapper mapper, long segmentSize) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.mapper = mapper;
+        this.segmentSize = segmentSize;
+        
+        Files.createDirectories(this.path.getParent());
+        this.nextIndex = segments().stream().mapToLong(this::indexOf).max().orElse(0) + 1;
+    }
+    
+    /**
+     * @return 지금까지 쓴 게시글 수 (이 인스턴스 기준 offset)
+     */
+    long append(List<PendingArticle> articles) throws IOException {
+        if (channel == null)
+            openSegment();
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(articles.size() * 256);
+        for (PendingArticle article : articles) {
+            bytes.write(mapper.writeValueAsBytes(article));
+            bytes.write('\n');
+        }
+        
+        long before = channel.size();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        } catch (IOException e) {
+            // 실패한 묶음은 201 로 응답하지 않으므로, 일부라도 남아 다음 기동 때 insert 되지 않도록 되돌린다
+            try {
+                channel.truncate(before);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+        
+        appended += articles.size();
+        if (appended - currentStart >= segmentSize)
+            rotate();
+        return appended;
+    }
+    
+    /**
+     * committed 번째 게시글까지 insert 됐다면, 그 앞에서 끝나는 세그먼트를 지운다. 모두 insert 됐으면 쓰고 있는 세그먼트도 비운다.
+     */
+    void release(long committed) throws IOException {
+        while (!closed.isEmpty() && closed.peekFirst().end() <= committed)
+            Files.deleteIfExists(closed.pollFirst().path());
+        
+        if (channel != null && committed == appended && currentStart < appended) {
+            channel.truncate(0);
+            channel.force(true);
+            currentStart = appended;
+        }
+    }
+    
+    /**
+     * 남아 있는 세그먼트를 쓴 순서대로 읽는다. 쓰다가 멈춘 마지막 줄처럼 읽을 수 없는 줄은 건너뛴다.
+     * 이 줄은 fsync 전에 끊긴 것이라 201 로 응답한 적이 없다.
+     */
+    List<PendingArticle> readAll() throws IOException {
+        List<PendingArticle> articles = new ArrayList<>();
+        
+        List<Path> files = new ArrayList<>();
+        // 세그먼트로 나누기 전 버전의 저널 파일
+        if (Files.isRegularFile(path))
+            files.add(path);
+        files.addAll(segments());
+        
+        for (Path file : files) {
+            for (String line : Files.readAllLines(file, UTF_8)) {
+                if (line.isBlank())
+                    continue;
+                try {
+                    articles.add(mapper.readValue(line, PendingArticle.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("저널의 읽을 수 없는 줄을 건너뜁니다. ({} bytes)", line.length());
+                }
+            }
+        }
+        return articles;
+    }
+    
+    /**
+     * 남아 있는 세그먼트를 모두 지우고 offset 을 0 부터 다시 센다. (기동 시 재처리를 마친 뒤)
+     */
+    void clear() throws IOException {
+        close();
+        channel = null;
+        closed.clear();
+        
+        Files.deleteIfExists(path);
+        for (Path segment : segments())
+            Files.deleteIfExists(segment);
+        
+        appended = 0;
+        currentStart = 0;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (channel != null)
+            channel.close();
+    }
+    
+    
+    private void openSegment() throws IOException {
+        currentPath = path.resolveSibling(path.getFileName() + "." + nextIndex++);
+        currentStart = appended;
+        channel = FileChannel.open(currentPath, CREATE, WRITE, APPEND);
+    }
+    
+    private void rotate() throws IOException {
+        channel.close();
+        channel = null;
+        closed.addLast(new Segment(currentPath, appended));
+    }
+    
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        String prefix = path.getFileName() + ".";
+        
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path.getParent(), prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit))
+                    segments.add(file);
+            }
+        }
+        segments.sort(Comparator.comparingLong(this::indexOf));
+        return segments;
+    }
+    
+    private long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+    }
+    
+    
+    /**
+     * @param end 이 세그먼트까지 쓴 게시글 수
+     */
+    private record Segment(Path path, long end) { }
+    
+}
@@ -0,0 +1,48 @@
+-- ddl-auto: none 으로 운영하는 h2 파일 DB 의 스키마 변경분.
+-- 애플리케이션이 뜰 때마다 실행되므로 모든 구문은 여러 번 실행해도 결과가 같아야 한다.
+
+-- IDENTITY -> SEQUENCE (pooled-lo, allocationSize 50). 기존 게시글 id 다음 값부터 발급
+CREATE SEQUENCE IF NOT EXISTS article_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM article) INCREMENT BY 50;
+
+-- 낙관적 잠금 버전 (ETag)
+ALTER TABLE article ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- 게시글 변경 이력 (GET /articles/changes)
+CREATE SEQUENCE IF NOT EXISTS article_change_seq START WITH 1 INCREMENT BY 50;
+-- 여러 인스턴스가 써도 seq 가 발급 순서대로 늘도록 1씩 받는 시퀀스 (ArticleChange). 블록(50)으로 나눠 받던 article_change_seq 가
+-- 이미 나눠 준 값 다음부터 시작한다. 블록을 들고 있는 이전 버전 인스턴스가 없도록 모두 내린 뒤 올린다
+CREATE SEQUENCE IF NOT EXISTS article_change_order_seq START WITH (
+    SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = 'PUBLIC' AND SEQUENCE_NAME = 'ARTICLE_CHANGE_SEQ'
+) INCREMENT BY 1;
+CREATE TABLE IF NOT EXISTS article_change (
+    seq        BIGINT      NOT NULL PRIMARY KEY,
+    type       VARCHAR(10) NOT NULL,
+    article_id BIGINT      NOT NULL,
+    changed_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_article_change_changed_at ON article_change (changed_at);
+CREATE TABLE IF NOT EXISTS article_change_consumer (
+    name      VARCHAR(100) NOT NULL PRIMARY KEY,
+    acked_seq BIGINT       NOT NULL,
+    acked_at  TIMESTAMP(6) NOT NULL
+);
+
+-- soft delete (tombstone). ArticlePurger 가 삭제된 지 오래된 게시글을 실제로 지운다
+ALTER TABLE article ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP(6);
+CREATE INDEX IF NOT EXISTS idx_article_deleted_at ON article (deleted_at);
+
+-- 전체 게시글 수 (GET /articles/count). ArticleCounter 가 주기적으로 남긴다
+CREATE TABLE IF NOT EXISTS article_stats (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    article_count BIGINT       NOT NULL,
+    counted_at    TIMESTAMP(6) NOT NULL
+);
+
+-- 조회수. ArticleViewCounter 가 모아서 batch UPDATE 로 더한다
+ALTER TABLE article ADD COLUMN IF NOT EXISTS view_count BIGINT DEFAULT 0 NOT NULL;
+
+-- 복제 지연 측정. ReplicaLagMonitor 가 primary 에 쓴 시각을 복제본에서 다시 읽는다
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id          INT    NOT NULL PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
@@ -0,0 +1,82 @@
+package kim.zhyun.board.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StampedCacheTest {
+    
+    private final StampedCache cache = new StampedCache("test", Caffeine.newBuilder().build(), true, Duration.ZERO);
+    
+    @DisplayName("stamp 를 받은 뒤 evict 가 없었으면 넣는다")
+    @Test
+    void putIfUnchanged() {
+        // given
+        long stamp = cache.stamp(1L);
+        
+        // when
+        cache.putIfUnchanged(1L, "article 1", stamp);
+        
+        // then
+        assertThat(cache.get(1L, String.class)).isEqualTo("article 1");
+    }
+    
+    @DisplayName("읽는 사이 evict 가 지나갔으면 수정 전에 읽은 값은 넣지 않는다")
+    @Test
+    void putIfUnchanged_after_evict() {
+        // given
+        long stamp = cache.stamp(1L);
+        cache.evict(1L);
+        
+        // when
+        cache.putIfUnchanged(1L, "article 1 (수정 전)", stamp);
+        
+        // then
+        assertThat(cache.get(1L)).isNull();
+    }
+    
+    @DisplayName("clear 이전에 받은 stamp 로는 넣지 않는다")
+    @Test
+    void clear() {
+        // given
+        long stamp = cache.stamp(1L);
+        
+        // when
+        cache.clear();
+        cache.putIfUnchanged(1L, "article 1", stamp);
+        
+        // then
+        assertThat(cache.get(1L)).isNull();
+    }
+    
+    @DisplayName("update 는 캐시된 값만 바꾸고, 바뀌는 중이거나 그 전에 읽기 시작한 값은 넣지 않는다")
+    @Test
+    void update() {
+        // given
+        cache.put(1L, 10L);
+        long before = cache.stamp(2L);
+        
+        // when
+        cache.beginUpdate(1L);
+        cache.beginUpdate(2L);
+        long during = cache.stamp(2L);
+        cache.putIfUnchanged(2L, 10L, during);
+        cache.<Long>endUpdate(1L, views -> views + 5);
+        cache.<Long>endUpdate(2L, views -> views + 5);
+        cache.putIfUnchanged(2L, 10L, before);
+        cache.putIfUnchanged(2L, 10L, during);
+        
+        // then
+        assertThat(cache.get(1L, Long.class)).isEqualTo(15L);
+        assertThat(cache.get(2L)).isNull();
+        
+        // 끝난 뒤 읽기 시작한 값은 넣는다
+        cache.putIfUnchanged(2L, 15L, cache.stamp(2L));
+        assertThat(cache.get(2L, Long.class)).isEqualTo(15L);
+    }
+    
+}
@@ -0,0 +1,97 @@
+package kim.zhyun.board.compression;
+
+import kim.zhyun.board.domain.ArticleContent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DB Test")
+@DataJpaTest
+class ContentCompressionMigratorTest {
+    private static final int MIN_BYTES = 100;
+    private static final String LONG_CONTENT = "내용".repeat(MIN_BYTES);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentCompressionPolicy policy = new ContentCompressionPolicy(true, DataSize.ofBytes(MIN_BYTES));
+    
+    public ContentCompressionMigratorTest(@Autowired DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    @DisplayName("min-size 이상인 평문만 압축하고, 작은 내용, 이미 압축된 내용, 삭제된 게시글은 건드리지 않는다")
+    @Test
+    void migrate() {
+        // given
+        String compressed = ArticleContent.compress(LONG_CONTENT);
+        insert(1, LONG_CONTENT, null);
+        insert(2, "짧은 내용", null);
+        insert(3, compressed, null);
+        insert(4, LONG_CONTENT, LocalDateTime.now());
+        
+        // when
+        new ContentCompressionMigrator(jdbcTemplate, policy).migrate();
+        
+        // then
+        assertThat(ArticleContent.isCompressed(content(1))).isTrue();
+        assertThat(ArticleContent.decompress(content(1))).isEqualTo(LONG_CONTENT);
+        assertThat(content(2)).isEqualTo("짧은 내용");
+        assertThat(content(3)).isEqualTo(compressed);
+        assertThat(content(4)).isEqualTo(LONG_CONTENT);
+        
+        // 내용은 같으므로 version 은 그대로
+        assertThat(version(1)).isEqualTo(0L);
+    }
+    
+    @DisplayName("읽은 뒤 수정된 게시글은 version 이 달라 압축본으로 덮어쓰지 않는다")
+    @Test
+    void migrate_skips_concurrent_edit() {
+        // given
+        insert(1, LONG_CONTENT, null);
+        insert(2, LONG_CONTENT, null);
+        
+        // 압축 대상을 읽은 직후 2번 게시글이 수정된 것처럼 만든다
+        JdbcTemplate editedWhileMigrating = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+                List<T> rows = super.query(sql, rowMapper, args);
+                update("UPDATE article SET content = ?, version = version + 1 WHERE id = ?", "수정된 내용", 2);
+                return rows;
+            }
+        };
+        
+        // when
+        new ContentCompressionMigrator(editedWhileMigrating, policy).migrate();
+        
+        // then
+        assertThat(ArticleContent.isCompressed(content(1))).isTrue();
+        assertThat(content(2)).isEqualTo("수정된 내용");
+        assertThat(version(2)).isEqualTo(1L);
+    }
+    
+    
+    private void insert(long id, String content, LocalDateTime deletedAt) {
+        jdbcTemplate.update("""
+                INSERT INTO article (id, title, content, created_at, version, view_count, deleted_at)
+                VALUES (?, ?, ?, ?, 0, 0, ?)""",
+                            id, "title " + id, content, LocalDateTime.now(), deletedAt);
+    }
+    
+    private String content(long id) {
+        return jdbcTemplate.queryForObject("SELECT content FROM article WHERE id = ?", String.class, id);
+    }
+    
+    private long version(long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM article WHERE id = ?", Long.class, id);
+    }
+    
+}
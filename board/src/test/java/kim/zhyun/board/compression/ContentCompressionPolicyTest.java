@@ -0,0 +1,74 @@
+package kim.zhyun.board.compression;
+
+import kim.zhyun.board.domain.ArticleContent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentCompressionPolicyTest {
+    
+    private final ContentCompressionPolicy policy = new ContentCompressionPolicy(true, DataSize.ofBytes(10));
+    
+    @DisplayName("UTF-8 크기가 min-size 보다 작으면 그대로, 같거나 크면 압축해서 저장한다")
+    @Test
+    void threshold() {
+        // given
+        String below = "a".repeat(9);
+        String exact = "a".repeat(10);
+        
+        // when
+        String storedBelow = policy.toStored(below);
+        String storedExact = policy.toStored(exact);
+        
+        // then
+        assertThat(storedBelow).isEqualTo(below);
+        assertThat(ArticleContent.isCompressed(storedExact)).isTrue();
+        assertThat(ArticleContent.decompress(storedExact)).isEqualTo(exact);
+    }
+    
+    @DisplayName("min-size 는 글자 수가 아니라 UTF-8 바이트 수로 비교한다")
+    @Test
+    void threshold_utf8_bytes() {
+        // given - 4 글자, 12 바이트
+        String korean = "게시글본";
+        
+        // when
+        String stored = policy.toStored(korean);
+        
+        // then
+        assertThat(ArticleContent.isCompressed(stored)).isTrue();
+        assertThat(ArticleContent.decompress(stored)).isEqualTo(korean);
+    }
+    
+    @DisplayName("꺼져 있으면 크기와 상관없이 압축하지 않는다")
+    @Test
+    void disabled() {
+        // given
+        ContentCompressionPolicy disabled = new ContentCompressionPolicy(false, DataSize.ofBytes(10));
+        String content = "a".repeat(1_000);
+        
+        // when
+        String stored = disabled.toStored(content);
+        
+        // then
+        assertThat(stored).isEqualTo(content);
+    }
+    
+    @DisplayName("MARKER 로 시작하는 평문은 꺼져 있거나 작아도 압축해서, 읽을 때 평문 그대로 돌아온다")
+    @Test
+    void plain_text_starting_with_marker() {
+        // given
+        ContentCompressionPolicy disabled = new ContentCompressionPolicy(false, DataSize.ofBytes(10));
+        String content = ArticleContent.MARKER + "평문";
+        
+        // when
+        String stored = disabled.toStored(content);
+        
+        // then
+        assertThat(stored).isNotEqualTo(content);
+        assertThat(ArticleContent.decompress(stored)).isEqualTo(content);
+    }
+    
+}
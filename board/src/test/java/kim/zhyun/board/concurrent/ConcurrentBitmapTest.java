@@ -0,0 +1,62 @@
+package kim.zhyun.board.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentBitmapTest {
+    
+    @DisplayName("켠 비트만 켜져 있고, 끈 비트는 꺼진다")
+    @Test
+    void set_clear() {
+        // given
+        ConcurrentBitmap bitmap = new ConcurrentBitmap();
+        
+        // when
+        bitmap.set(1);
+        bitmap.set(64);
+        bitmap.set(70_000);
+        bitmap.set(70_001);
+        bitmap.clear(70_000);
+        
+        // then
+        assertThat(bitmap.get(1)).isTrue();
+        assertThat(bitmap.get(64)).isTrue();
+        assertThat(bitmap.get(70_001)).isTrue();
+        assertThat(bitmap.get(70_000)).isFalse();
+        assertThat(bitmap.get(2)).isFalse();
+        assertThat(bitmap.get(65)).isFalse();
+        
+        // 만들지 않은 구간, 음수는 꺼진 것으로 본다
+        assertThat(bitmap.get(Long.MAX_VALUE)).isFalse();
+        assertThat(bitmap.get(-1)).isFalse();
+    }
+    
+    @DisplayName("여러 스레드가 같은 word, 새 구간의 비트를 동시에 켜도 잃지 않는다")
+    @Test
+    void set_concurrently() {
+        // given
+        ConcurrentBitmap bitmap = new ConcurrentBitmap();
+        int threads = 8;
+        long perThread = 100_000;
+        
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                // 스레드마다 한 칸씩 엇갈려 켜서 모든 word 를 여러 스레드가 같이 고친다
+                executor.execute(() -> LongStream.range(0, perThread)
+                        .forEach(i -> bitmap.set(i * threads + offset)));
+            }
+        }
+        
+        // then
+        assertThat(LongStream.range(0, threads * perThread).allMatch(bitmap::get)).isTrue();
+    }
+    
+}
@@ -0,0 +1,156 @@
+package kim.zhyun.board.concurrent;
+
+import kim.zhyun.board.exception.ArticleNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static kim.zhyun.board.data.type.ExceptionType.ARTICLE_NOT_FOUND;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+    private static final int CALLERS = 20;
+    
+    @DisplayName("동시에 같은 key 를 읽으면 loader 는 한 번만 실행하고 결과를 나눠 쓴다")
+    @Test
+    void coalesce() throws Exception {
+        // given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        
+        // when
+        List<Future<String>> results = runConcurrently(() -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "article 1";
+        }), release);
+        
+        // then
+        for (Future<String> result : results)
+            assertThat(result.get()).isEqualTo("article 1");
+        assertThat(loads.get()).isEqualTo(1);
+        
+        // 읽기가 끝나면 잊으므로 다음 읽기는 다시 실행한다
+        assertThat(singleFlight.load(1L, () -> "article 1 (new)")).isEqualTo("article 1 (new)");
+    }
+    
+    @DisplayName("loader 가 던진 예외는 기다리던 요청에도 그대로 던진다")
+    @Test
+    void propagate_exception() throws Exception {
+        // given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        
+        // when
+        List<Future<String>> results = runConcurrently(() -> singleFlight.load(1L, () -> {
+            await(release);
+            throw new ArticleNotFoundException(ARTICLE_NOT_FOUND);
+        }), release);
+        
+        // then
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertThat(e.getCause()).isInstanceOf(ArticleNotFoundException.class);
+        }
+    }
+    
+    @DisplayName("앞선 읽기가 timeout 안에 끝나지 않으면 TimeoutException")
+    @Test
+    void timeout() throws Exception {
+        // given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofMillis(100));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> singleFlight.load(1L, () -> {
+                started.countDown();
+                await(release);
+                return "article 1";
+            }));
+            started.await();
+            
+            // when - then
+            assertThrows(TimeoutException.class, () -> singleFlight.load(1L, () -> "never"));
+            release.countDown();
+        }
+    }
+    
+    @DisplayName("더 새 generation 의 요청은 오래된 읽기에 붙지 않고 새로 읽으며, 뒤에 오는 요청은 새 읽기에 붙는다")
+    @Test
+    void newer_generation() throws Exception {
+        // given
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch oldStarted = new CountDownLatch(1);
+        CountDownLatch newStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            Future<String> old = executor.submit(() -> singleFlight.load(1L, 1, () -> {
+                oldStarted.countDown();
+                await(release);
+                return "article 1 (수정 전)";
+            }));
+            oldStarted.await();
+            
+            // when
+            Future<String> fresh = executor.submit(() -> singleFlight.load(1L, 2, () -> {
+                newStarted.countDown();
+                await(release);
+                return "article 1 (수정 후)";
+            }));
+            newStarted.await();
+            Future<String> follower = executor.submit(() -> singleFlight.load(1L, 1, () -> "never"));
+            Thread.sleep(200);
+            release.countDown();
+            
+            // then
+            assertThat(old.get()).isEqualTo("article 1 (수정 전)");
+            assertThat(fresh.get()).isEqualTo("article 1 (수정 후)");
+            assertThat(follower.get()).isEqualTo("article 1 (수정 후)");
+        }
+    }
+    
+    
+    private static List<Future<String>> runConcurrently(Callable<String> task,
+                                                        CountDownLatch release) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(CALLERS);
+        List<Future<String>> results = new ArrayList<>(CALLERS);
+        
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++)
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    return task.call();
+                }));
+            
+            // 모두 leader 의 읽기에 붙을 시간을 준 뒤 읽기를 끝낸다
+            ready.await();
+            Thread.sleep(200);
+            release.countDown();
+        }
+        return results;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+}
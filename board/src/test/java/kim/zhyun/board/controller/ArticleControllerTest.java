@@ -4,15 +4,22 @@ package kim.zhyun.board.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jayway.jsonpath.JsonPath;
+import kim.zhyun.board.data.ApiResponse;
+import kim.zhyun.board.data.ArticleChangeDto;
 import kim.zhyun.board.data.ArticleCreateRequest;
 import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.data.ArticleSearchResult;
+import kim.zhyun.board.data.ArticleSummaryDto;
 import kim.zhyun.board.data.ArticleUpdateRequest;
 import kim.zhyun.board.data.ValidExceptionResponse;
 import kim.zhyun.board.exception.ArticleNotFoundException;
+import kim.zhyun.board.exception.ArticleVersionConflictException;
 import kim.zhyun.board.service.ArticleService;
 import net.minidev.json.JSONArray;
 import net.minidev.json.parser.JSONParser;
 import net.minidev.json.parser.ParseException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -20,17 +27,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 
 import static java.time.LocalDateTime.now;
+import static kim.zhyun.board.data.type.ArticleChangeType.CREATED;
+import static kim.zhyun.board.data.type.ArticleChangeType.DELETED;
 import static kim.zhyun.board.data.type.ExceptionType.ARTICLE_NOT_FOUND;
+import static kim.zhyun.board.data.type.ExceptionType.ARTICLE_VERSION_CONFLICT;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.test.util.AssertionErrors.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -46,11 +66,20 @@ class ArticleControllerTest {
     private final MockMvc mvc;
     private final ObjectMapper mapper;
     private final JSONParser parser;
+    private final CacheManager cacheManager;
     public ArticleControllerTest(@Autowired MockMvc mvc,
-                                 @Autowired ObjectMapper mapper) {
+                                 @Autowired ObjectMapper mapper,
+                                 @Autowired CacheManager cacheManager) {
         this.mvc = mvc;
         this.mapper = mapper.registerModule(new JavaTimeModule());
         this.parser = new JSONParser(JSONParser.MODE_PERMISSIVE);
+        this.cacheManager = cacheManager;
+    }
+    
+    // 1건 조회 응답은 게시글 id 별로 캐시되므로, 테스트마다 mock 이 돌려주는 게시글로 다시 만든다
+    @AfterEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
     
     @DisplayName("게시글 조회 Case 모음")
@@ -71,13 +100,13 @@ class ArticleControllerTest {
         @Test
         void findAll() throws Exception {
             List<ArticleDto> dtos = List.of(
-                    ArticleDto.of(1L, "title 1", "안뇽하십니꽈 1", now().plusHours(1), now().plusHours(1)),
-                    ArticleDto.of(2L, "title 2", "안뇽하십니꽈 2", now().plusHours(2), now().plusHours(2)),
-                    ArticleDto.of(3L, "title 3", "안뇽하십니꽈 3", now().plusHours(3), now().plusHours(3))
+                    ArticleDto.of(1L, "title 1", "안뇽하십니꽈 1", now().plusHours(1), now().plusHours(1), 0L, 0L),
+                    ArticleDto.of(2L, "title 2", "안뇽하십니꽈 2", now().plusHours(2), now().plusHours(2), 0L, 0L),
+                    ArticleDto.of(3L, "title 3", "안뇽하십니꽈 3", now().plusHours(3), now().plusHours(3), 0L, 0L)
             );
             
             // When
-            when(articleService.findAll()).thenReturn(dtos);
+            when(articleService.findAll(0L, 20)).thenReturn(dtos);
             
             // Then
             mvc.perform(get("/articles").contentType(APPLICATION_JSON))
@@ -85,17 +114,187 @@ class ArticleControllerTest {
                     .andExpect(jsonPath("$.status").value(true))
                     .andExpect(jsonPath("$.message").value("article 전체 조회"))
                     .andExpect(jsonPath("$.result").value(getJsonArrayDto(dtos)))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                    .andDo(print());
+            
+            verify(articleService).findAll(0L, 20);
+        }
+        
+        @DisplayName("전체 조회 - 커서 페이지")
+        @Test
+        void findAll_with_cursor() throws Exception {
+            List<ArticleDto> dtos = List.of(
+                    ArticleDto.of(4L, "title 4", "안뇽하십니꽈 4", now().plusHours(4), now().plusHours(4), 0L, 0L),
+                    ArticleDto.of(5L, "title 5", "안뇽하십니꽈 5", now().plusHours(5), now().plusHours(5), 0L, 0L)
+            );
+            
+            // When
+            when(articleService.findAll(3L, 2)).thenReturn(dtos);
+            
+            // Then
+            mvc.perform(get("/articles")
+                            .param("after", "3")
+                            .param("size", "2")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value(true))
+                    .andExpect(jsonPath("$.result").value(getJsonArrayDto(dtos)))
+                    .andExpect(jsonPath("$.nextCursor").value(5))
+                    .andDo(print());
+            
+            verify(articleService).findAll(3L, 2);
+        }
+        
+        @DisplayName("전체 조회 - 요약 보기")
+        @Test
+        void findAll_summary() throws Exception {
+            List<ArticleSummaryDto> summaries = List.of(
+                    new ArticleSummaryDto(1L, "title 1", now().plusHours(1), now().plusHours(1)),
+                    new ArticleSummaryDto(2L, "title 2", now().plusHours(2), now().plusHours(2))
+            );
+            
+            // When
+            when(articleService.findAllSummary(0L, 20)).thenReturn(summaries);
+            
+            // Then
+            mvc.perform(get("/articles")
+                            .param("view", "summary")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value(true))
+                    .andExpect(jsonPath("$.result[0].title").value("title 1"))
+                    .andExpect(jsonPath("$.result[0].content").doesNotExist())
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                    .andDo(print());
+            
+            verify(articleService).findAllSummary(0L, 20);
+            verify(articleService, times(0)).findAll(anyLong(), anyInt());
+        }
+        
+        @DisplayName("전체 내보내기 - NDJSON 스트리밍")
+        @Test
+        void export() throws Exception {
+            List<ArticleDto> dtos = List.of(
+                    ArticleDto.of(1L, "title 1", "안뇽하십니꽈 1", now().plusHours(1), now().plusHours(1), 0L, 0L),
+                    ArticleDto.of(2L, "title 2", "안뇽하십니꽈 2", now().plusHours(2), now().plusHours(2), 0L, 0L)
+            );
+            StringBuilder expected = new StringBuilder();
+            for (ArticleDto dto : dtos)
+                expected.append(mapper.writeValueAsString(dto)).append('\n');
+            
+            // When
+            willAnswer(invocation -> {
+                Consumer<ArticleDto> consumer = invocation.getArgument(0);
+                dtos.forEach(consumer);
+                return null;
+            }).given(articleService).exportAll(any());
+            
+            // Then
+            MvcResult result = mvc.perform(get("/articles/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            
+            mvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(APPLICATION_NDJSON))
+                    .andExpect(content().string(expected.toString()))
+                    .andDo(print());
+            
+            verify(articleService).exportAll(any());
+        }
+        
+        @DisplayName("검색 - 관련도 순")
+        @Test
+        void search() throws Exception {
+            List<ArticleSearchResult> results = List.of(
+                    ArticleSearchResult.of(2L, "게시판 검색", 1.8f),
+                    ArticleSearchResult.of(1L, "title 1", 0.4f)
+            );
+            
+            // When
+            when(articleService.search("게시판", 0, 20)).thenReturn(results);
+            
+            // Then
+            mvc.perform(get("/articles/search")
+                            .param("q", "게시판")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value(true))
+                    .andExpect(jsonPath("$.result[0].id").value(2))
+                    .andExpect(jsonPath("$.result[0].title").value("게시판 검색"))
+                    .andExpect(jsonPath("$.result[1].id").value(1))
+                    .andDo(print());
+            
+            verify(articleService).search("게시판", 0, 20);
+        }
+        
+        @DisplayName("게시글 수 조회")
+        @Test
+        void count() throws Exception {
+            // When
+            when(articleService.count()).thenReturn(42L);
+            
+            // Then
+            mvc.perform(get("/articles/count").contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value(true))
+                    .andExpect(jsonPath("$.message").value("article 수 조회"))
+                    .andExpect(jsonPath("$.result").value(42))
+                    .andDo(print());
+            
+            verify(articleService).count();
+        }
+        
+        @DisplayName("변경 이력 조회 - afterSeq 이후, 소비자 기록")
+        @Test
+        void findChanges() throws Exception {
+            List<ArticleChangeDto> changes = List.of(
+                    new ArticleChangeDto(11L, CREATED, 3L, now()),
+                    new ArticleChangeDto(12L, DELETED, 1L, now())
+            );
+            
+            // When
+            when(articleService.findChanges(10L, 100)).thenReturn(changes);
+            
+            // Then
+            mvc.perform(get("/articles/changes")
+                            .param("afterSeq", "10")
+                            .param("consumer", "search-sync")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result[0].type").value("CREATED"))
+                    .andExpect(jsonPath("$.result[1].articleId").value(1))
+                    .andExpect(jsonPath("$.nextCursor").value(12))
                     .andDo(print());
             
-            verify(articleService).findAll();
+            verify(articleService).ackChanges("search-sync", 10L);
+            verify(articleService).findChanges(10L, 100);
+        }
+        
+        @DisplayName("변경 이력 조회 - 새 이력이 없으면 nextCursor 는 afterSeq 그대로")
+        @Test
+        void findChanges_empty() throws Exception {
+            // When
+            when(articleService.findChanges(12L, 100)).thenReturn(List.of());
+            
+            // Then
+            mvc.perform(get("/articles/changes")
+                            .param("afterSeq", "12")
+                            .contentType(APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result").isEmpty())
+                    .andExpect(jsonPath("$.nextCursor").value(12))
+                    .andDo(print());
+            
+            verify(articleService, times(0)).ackChanges(any(), anyLong());
         }
         
         @DisplayName("1건 조회")
         @Test
         void findById() throws Exception {
             // given
-            long articleId = 1L;
-            ArticleDto articleDto = ArticleDto.of(articleId, "title", "content", now(), now());
+            long articleId = 101L;
+            ArticleDto articleDto = ArticleDto.of(articleId, "title", "content", now(), now(), 0L, 5L);
             
             // When
             when(articleService.findById(articleId)).thenReturn(articleDto);
@@ -105,12 +304,153 @@ class ArticleControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.status").value(true))
                     .andExpect(jsonPath("$.message").value("article " + articleId + " 조회"))
-                    .andExpect(jsonPath("$.result").value(getJsonObject(articleDto)))
+                    .andExpect(jsonPath("$.result").value(getJsonObject(articleDto.withViewCount(6L))))
+                    .andDo(print());
+            
+            verify(articleService).findById(articleId);
+        }
+        
+        @DisplayName("1건 조회 - 조회수는 DB 반영 전에도 조회마다 증가, 캐시된 게시글은 그대로")
+        @Test
+        void findById_view_count() throws Exception {
+            // given
+            long articleId = 102L;
+            ArticleDto articleDto = ArticleDto.of(articleId, "title", "content", now(), now(), 0L, 0L);
+            
+            // When
+            when(articleService.findById(articleId)).thenReturn(articleDto);
+            
+            // Then
+            mvc.perform(get("/articles/{id}", articleId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result.viewCount").value(1))
                     .andDo(print());
             
+            mvc.perform(get("/articles/{id}", articleId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result.viewCount").value(2))
+                    .andDo(print());
+            
+            assertTrue("", articleDto.getViewCount() == 0L);
             verify(articleService).findById(articleId);
         }
         
+        @DisplayName("1건 조회 - Accept-Encoding: gzip 이면 큰 게시글은 gzip 으로 응답")
+        @Test
+        void findById_gzip() throws Exception {
+            // given
+            long articleId = 103L;
+            ArticleDto articleDto = ArticleDto.of(articleId, "title", "안뇽하십니꽈 ".repeat(300), now(), now(), 2L, 7L);
+            
+            // When
+            when(articleService.findById(articleId)).thenReturn(articleDto);
+            
+            // Then
+            MvcResult result = mvc.perform(get("/articles/{id}", articleId)
+                            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-gzip\""))
+                    .andReturn();
+            
+            byte[] gzipped = result.getResponse().getContentAsByteArray();
+            String json;
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+                json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            
+            assertTrue("", gzipped.length < json.getBytes(StandardCharsets.UTF_8).length);
+            assertTrue("", parser.parse(json).equals(parser.parse(mapper.writeValueAsString(ApiResponse.<ArticleDto>builder()
+                    .status(true)
+                    .message("article " + articleId + " 조회")
+                    .result(articleDto.withViewCount(8L)).build()))));
+        }
+        
+        @DisplayName("1건 조회 - gzip 본문과 압축하지 않은 본문은 ETag 가 달라 서로의 ETag 로 304 를 받지 않는다")
+        @Test
+        void findById_gzip_etag() throws Exception {
+            // given
+            long articleId = 104L;
+            ArticleDto articleDto = ArticleDto.of(articleId, "title", "안뇽하십니꽈 ".repeat(300), now(), now(), 2L, 7L);
+            
+            // When
+            when(articleService.findById(articleId)).thenReturn(articleDto);
+            
+            // Then
+            mvc.perform(get("/articles/{id}", articleId)
+                            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"2\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-gzip\""));
+            
+            mvc.perform(get("/articles/{id}", articleId)
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"2-gzip\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"2\""));
+            
+            mvc.perform(get("/articles/{id}", articleId)
+                            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"2-gzip\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andDo(print());
+        }
+        
+        @DisplayName("1건 조회 - Accept-Encoding 의 q 값을 따른다. gzip;q=0 이면 압축하지 않고, gzip 이 없으면 * 를 따른다")
+        @Test
+        void findById_gzip_q_value() throws Exception {
+            // given
+            long articleId = 105L;
+            ArticleDto articleDto = ArticleDto.of(articleId, "title", "안뇽하십니꽈 ".repeat(300), now(), now(), 2L, 7L);
+            
+            // When
+            when(articleService.findById(articleId)).thenReturn(articleDto);
+            
+            // Then
+            for (String refused : List.of("gzip;q=0", "deflate, gzip; q=0.0", "*;q=0.5, gzip;q=0", "identity, *;q=0", "gzip;q=abc"))
+                mvc.perform(get("/articles/{id}", articleId)
+                                .header(HttpHeaders.ACCEPT_ENCODING, refused))
+                        .andExpect(status().isOk())
+                        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                        .andExpect(header().string(HttpHeaders.ETAG, "W/\"2\""));
+            
+            for (String accepted : List.of("gzip;q=0.5", "deflate;q=1, GZIP;Q=0.1", "*", "identity;q=1, *;q=0.2"))
+                mvc.perform(get("/articles/{id}", articleId)
+                                .header(HttpHeaders.ACCEPT_ENCODING, accepted))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                        .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-gzip\""));
+        }
+        
+        @DisplayName("1건 조회 - ETag 가 If-None-Match 와 같으면 304")
+        @Test
+        void findById_not_modified() throws Exception {
+            // given
+            long articleId = 1L;
+            ArticleDto articleDto = ArticleDto.of(articleId, "title", "content", now(), now(), 3L, 0L);
+            
+            // When
+            when(articleService.findById(articleId)).thenReturn(articleDto);
+            
+            // Then
+            mvc.perform(get("/articles/{id}", articleId)
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                    .andExpect(content().string(""))
+                    .andDo(print());
+            
+            mvc.perform(get("/articles/{id}", articleId)
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"2\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                    .andExpect(jsonPath("$.result.version").value(3))
+                    .andDo(print());
+        }
+        
         @DisplayName("1건 조회 - 없는 게시글 조회")
         @Test
         void findById_non_existent() throws Exception {
@@ -159,6 +499,37 @@ class ArticleControllerTest {
             verify(articleService).save(request);
         }
         
+        @DisplayName("여러건 등록 - 항목별 결과")
+        @Test
+        void saveAll() throws Exception {
+            // given
+            ArticleCreateRequest first = ArticleCreateRequest.of("제목 1", "내용 1");
+            ArticleCreateRequest invalid = ArticleCreateRequest.of("", "내용 2");
+            ArticleCreateRequest third = ArticleCreateRequest.of("제목 3", "내용 3");
+            
+            // when
+            when(articleService.saveAll(List.of(first, third))).thenReturn(List.of(100L, 101L));
+            
+            // then
+            mvc.perform(post("/articles/batch")
+                            .contentType(APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(List.of(first, invalid, third))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value(true))
+                    .andExpect(jsonPath("$.message").value("3건 중 2건 등록되었습니다."))
+                    .andExpect(jsonPath("$.result[0].status").value(true))
+                    .andExpect(jsonPath("$.result[0].id").value(100))
+                    .andExpect(jsonPath("$.result[1].status").value(false))
+                    .andExpect(jsonPath("$.result[1].id").doesNotExist())
+                    .andExpect(jsonPath("$.result[1].errors[0].field").value("title"))
+                    .andExpect(jsonPath("$.result[1].errors[0].message").value("제목을 입력해주세요"))
+                    .andExpect(jsonPath("$.result[2].index").value(2))
+                    .andExpect(jsonPath("$.result[2].id").value(101))
+                    .andDo(print());
+            
+            verify(articleService).saveAll(List.of(first, third));
+        }
+        
         @DisplayName("등록 실패 Case 모음")
         @Nested
         class SaveFailTest {
@@ -263,6 +634,50 @@ class ArticleControllerTest {
             verify(articleService).update(request);
         }
         
+        @DisplayName("수정 - If-Match 버전 확인")
+        @Test
+        void update_if_match() throws Exception {
+            // given
+            long updateId = 10L;
+            ArticleUpdateRequest request = ArticleUpdateRequest.of(updateId, "제목 1 수정", "버전 확인 후 수정");
+            
+            // when
+            willDoNothing().given(articleService).update(request, 3L);
+            
+            // then
+            mvc.perform(put("/articles/{id}", updateId)
+                            .header(HttpHeaders.IF_MATCH, "\"3\"")
+                            .contentType(APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.status").value(true))
+                    .andDo(print());
+            
+            verify(articleService).update(request, 3L);
+            verify(articleService, times(0)).update(request);
+        }
+        
+        @DisplayName("수정 - If-Match 버전 불일치 412")
+        @Test
+        void update_if_match_conflict() throws Exception {
+            // given
+            long updateId = 10L;
+            ArticleUpdateRequest request = ArticleUpdateRequest.of(updateId, "제목 1 수정", "늦게 도착한 수정");
+            
+            // when
+            willThrow(new ArticleVersionConflictException(ARTICLE_VERSION_CONFLICT)).given(articleService).update(request, 2L);
+            
+            // then
+            mvc.perform(put("/articles/{id}", updateId)
+                            .header(HttpHeaders.IF_MATCH, "\"2\"")
+                            .contentType(APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(request)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(jsonPath("$.status").value(false))
+                    .andExpect(jsonPath("$.message").value(ARTICLE_VERSION_CONFLICT.getDescription()))
+                    .andDo(print());
+        }
+        
         @DisplayName("수정 실패 Case 모음")
         @Nested
         class UpdateFailTest {
@@ -380,6 +795,80 @@ class ArticleControllerTest {
             verify(articleService).deleteOne(deleteId);
         }
         
+        @DisplayName("1건 삭제 - If-Match 버전 불일치 412")
+        @Test
+        void delete_one_if_match_conflict() throws Exception {
+            // given
+            long deleteId = 10L;
+            
+            // when
+            willThrow(new ArticleVersionConflictException(ARTICLE_VERSION_CONFLICT)).given(articleService).deleteOne(deleteId, 5L);
+            
+            // then
+            mvc.perform(delete("/articles/{id}", deleteId)
+                            .header(HttpHeaders.IF_MATCH, "\"5\""))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(jsonPath("$.status").value(false))
+                    .andDo(print());
+            
+            verify(articleService).deleteOne(deleteId, 5L);
+            verify(articleService, times(0)).deleteOne(deleteId);
+        }
+        
+        @DisplayName("1건 삭제 - 조회 때 받은 weak ETag 를 If-Match 로 보내면 버전으로 비교")
+        @Test
+        void delete_one_if_match_weak_etag() throws Exception {
+            // given
+            long deleteId = 10L;
+            
+            // when
+            willDoNothing().given(articleService).deleteOne(deleteId, 5L);
+            
+            // then
+            mvc.perform(delete("/articles/{id}", deleteId)
+                            .header(HttpHeaders.IF_MATCH, "W/\"5\""))
+                    .andExpect(status().isNoContent())
+                    .andDo(print());
+            
+            verify(articleService).deleteOne(deleteId, 5L);
+            verify(articleService, times(0)).deleteOne(deleteId);
+        }
+        
+        @DisplayName("1건 삭제 - gzip 으로 조회해 받은 ETag 를 If-Match 로 보내도 버전으로 비교")
+        @Test
+        void delete_one_if_match_gzip_etag() throws Exception {
+            // given
+            long deleteId = 10L;
+            
+            // when
+            willDoNothing().given(articleService).deleteOne(deleteId, 5L);
+            
+            // then
+            mvc.perform(delete("/articles/{id}", deleteId)
+                            .header(HttpHeaders.IF_MATCH, "W/\"5-gzip\""))
+                    .andExpect(status().isNoContent())
+                    .andDo(print());
+            
+            verify(articleService).deleteOne(deleteId, 5L);
+            verify(articleService, times(0)).deleteOne(deleteId);
+        }
+        
+        @DisplayName("1건 삭제 - If-Match 형식 오류 412")
+        @Test
+        void delete_one_if_match_malformed() throws Exception {
+            // given
+            long deleteId = 10L;
+            
+            // then
+            mvc.perform(delete("/articles/{id}", deleteId)
+                            .header(HttpHeaders.IF_MATCH, "5"))
+                    .andExpect(status().isPreconditionFailed())
+                    .andDo(print());
+            
+            verify(articleService, times(0)).deleteOne(anyLong(), anyLong());
+            verify(articleService, times(0)).deleteOne(deleteId);
+        }
+        
         @DisplayName("여러건 삭제")
         @Test
         void delete_many() throws Exception {
@@ -400,6 +889,40 @@ class ArticleControllerTest {
             verify(articleService).deleteMany(deleteIds);
         }
         
+        @DisplayName("여러건 삭제 - 기준보다 많으면 202 와 삭제 작업, 나눠서 삭제")
+        @Test
+        void delete_many_async() throws Exception {
+            // given
+            Set<Long> deleteIds = LongStream.rangeClosed(1, 1_500).boxed().collect(Collectors.toSet());
+            
+            // when
+            MvcResult result = mvc.perform(delete("/articles")
+                            .contentType(APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(deleteIds)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().exists(HttpHeaders.LOCATION))
+                    .andExpect(jsonPath("$.result.total").value(1_500))
+                    .andDo(print())
+                    .andReturn();
+            
+            // then
+            verify(articleService, timeout(1_000).times(3)).deleteMany(anySet());
+            
+            String jobId = JsonPath.read(result.getResponse().getContentAsString(), "$.result.id");
+            String jobStatus = "RUNNING";
+            for (int retry = 0; retry < 50 && jobStatus.equals("RUNNING"); retry++) {
+                Thread.sleep(20);
+                jobStatus = JsonPath.read(mvc.perform(get("/articles/delete-jobs/{id}", jobId))
+                                                  .andReturn().getResponse().getContentAsString(), "$.result.status");
+            }
+            
+            mvc.perform(get("/articles/delete-jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.result.processed").value(1_500))
+                    .andDo(print());
+        }
+        
         @DisplayName("여러건 삭제 - 없는 게시글")
         @Test
         void delete_many_non_existent() throws Exception {
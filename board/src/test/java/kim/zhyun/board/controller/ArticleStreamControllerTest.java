@@ -0,0 +1,92 @@
+package kim.zhyun.board.controller;
+
+import kim.zhyun.board.domain.ArticleChange;
+import kim.zhyun.board.repository.ArticleChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static java.time.LocalDateTime.now;
+import static kim.zhyun.board.data.type.ArticleChangeType.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@AutoConfigureMockMvc
+@SpringBootTest
+class ArticleStreamControllerTest {
+    
+    private final MockMvc mvc;
+    private final ArticleChangeRepository changeRepository;
+    public ArticleStreamControllerTest(@Autowired MockMvc mvc,
+                                       @Autowired ArticleChangeRepository changeRepository) {
+        this.mvc = mvc;
+        this.changeRepository = changeRepository;
+    }
+    
+    @DisplayName("구독 - Last-Event-ID 이후 변경 이력부터 이어서 전송")
+    @Test
+    void stream_resume_after_last_event_id() throws Exception {
+        // given - settle-time 이 지난 이력
+        List<ArticleChange> changes = changeRepository.saveAll(List.of(
+                ArticleChange.of(null, CREATED, 1L, now().minusMinutes(1)),
+                ArticleChange.of(null, UPDATED, 1L, now().minusMinutes(1)),
+                ArticleChange.of(null, DELETED, 1L, now().minusMinutes(1))
+        ));
+        long lastEventId = changes.get(0).getSeq();
+        
+        // when
+        MvcResult result = mvc.perform(get("/articles/stream")
+                                .accept(TEXT_EVENT_STREAM)
+                                .header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // then
+        String body = result.getResponse().getContentAsString();
+        
+        assertThat(body).doesNotContain("id:" + lastEventId + "\n");
+        assertThat(body).contains("id:" + changes.get(1).getSeq() + "\nevent:UPDATED\n");
+        assertThat(body).contains("id:" + changes.get(2).getSeq() + "\nevent:DELETED\n");
+    }
+    
+    @DisplayName("구독 - settle-time 이 지나지 않은 이력은 Last-Event-ID 가 넘어가지 않도록 id 없이 전송")
+    @Test
+    void stream_resume_unsettled_without_id() throws Exception {
+        // given
+        List<ArticleChange> changes = changeRepository.saveAll(List.of(
+                ArticleChange.of(null, CREATED, 1L, now().minusMinutes(1)),
+                ArticleChange.of(null, UPDATED, 1L, now().minusMinutes(1)),
+                ArticleChange.of(null, DELETED, 1L, now())
+        ));
+        long lastEventId = changes.get(0).getSeq();
+        
+        // when
+        MvcResult result = mvc.perform(get("/articles/stream")
+                                .accept(TEXT_EVENT_STREAM)
+                                .header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // then
+        String body = result.getResponse().getContentAsString();
+        
+        assertThat(body).contains("id:" + changes.get(1).getSeq() + "\nevent:UPDATED\n");
+        assertThat(body).doesNotContain("id:" + changes.get(2).getSeq() + "\n");
+        assertThat(body).contains("event:DELETED\n");
+    }
+    
+    @AfterEach
+    void clear() {
+        changeRepository.deleteAll();
+    }
+    
+}
@@ -0,0 +1,38 @@
+package kim.zhyun.board.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest
+class CacheControllerTest {
+    
+    private final MockMvc mvc;
+    public CacheControllerTest(@Autowired MockMvc mvc) {
+        this.mvc = mvc;
+    }
+    
+    @DisplayName("캐시 통계 조회 - article 캐시")
+    @Test
+    void stats() throws Exception {
+        mvc.perform(get("/caches/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(true))
+                .andExpect(jsonPath("$.message").value("cache 통계 조회"))
+                .andExpect(jsonPath("$.result[0].name").value("article"))
+                .andExpect(jsonPath("$.result[0].hitCount").isNumber())
+                .andExpect(jsonPath("$.result[0].missCount").isNumber())
+                .andExpect(jsonPath("$.result[0].evictionCount").isNumber())
+                .andDo(print());
+    }
+    
+}
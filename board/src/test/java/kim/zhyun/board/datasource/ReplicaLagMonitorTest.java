@@ -0,0 +1,137 @@
+package kim.zhyun.board.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kim.zhyun.board.config.ReplicaProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaLagMonitorTest {
+    private static final String CREATE_HEARTBEAT = "CREATE TABLE replica_heartbeat (id INT NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)";
+    
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate routed;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    
+    @BeforeEach
+    void setUp() {
+        // 복제되지 않는 두 메모리 DB. 복제본의 heartbeat 는 테스트가 직접 써서 지연을 만든다
+        String replicaUrl = "jdbc:h2:mem:" + UUID.randomUUID() + ";mode=MYSQL;DB_CLOSE_DELAY=-1";
+        DataSource primaryDataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";mode=MYSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, "sa", ""));
+        for (JdbcTemplate db : List.of(primary, replica)) {
+            db.execute(CREATE_HEARTBEAT);
+            db.execute("CREATE TABLE node (name VARCHAR(10))");
+        }
+        primary.update("INSERT INTO node VALUES ('primary')");
+        replica.update("INSERT INTO node VALUES ('replica')");
+        
+        monitor = new ReplicaLagMonitor(primaryDataSource,
+                                        new ReplicaProperties(List.of(new ReplicaProperties.Replica(replicaUrl, "sa", "")), Duration.ofSeconds(5)),
+                                        new SimpleMeterRegistry());
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, monitor);
+        routing.afterPropertiesSet();
+        
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        routed = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+    }
+    
+    @DisplayName("첫 측정 전에는 복제본으로 보내지 않는다")
+    @Test
+    void not_measured() {
+        // when
+        String node = readOnly.execute(status -> node());
+        
+        // then
+        assertThat(node).isEqualTo("primary");
+        assertThat(monitor.pick()).isNull();
+    }
+    
+    @DisplayName("지연이 max-lag 안이면 readOnly 트랜잭션만 복제본에서 읽는다")
+    @Test
+    void route_to_replica() {
+        // given
+        beatReplica(0);
+        
+        // when
+        monitor.measure();
+        
+        // then
+        assertThat(readOnly.execute(status -> node() + " " + ReadWriteRoutingDataSource.isReadingReplica()))
+                .isEqualTo("replica true");
+        assertThat(readWrite.execute(status -> node() + " " + ReadWriteRoutingDataSource.isReadingReplica()))
+                .isEqualTo("primary false");
+    }
+    
+    @DisplayName("max-lag 보다 뒤처진 복제본은 빼고 primary 에서 읽다가, 따라잡으면 다시 넣는다")
+    @Test
+    void fallback_when_lagging() {
+        // given - 복제본의 heartbeat 가 10초 전에 멈췄다
+        beatReplica(Duration.ofSeconds(10).toMillis());
+        
+        // when
+        monitor.measure();
+        String lagging = readOnly.execute(status -> node() + " " + ReadWriteRoutingDataSource.isReadingReplica());
+        beatReplica(0);
+        monitor.measure();
+        String caughtUp = readOnly.execute(status -> node());
+        
+        // then
+        assertThat(lagging).isEqualTo("primary false");
+        assertThat(caughtUp).isEqualTo("replica");
+    }
+    
+    @DisplayName("복제본에서 heartbeat 를 읽지 못하면 primary 에서 읽는다")
+    @Test
+    void fallback_when_unreadable() {
+        // given
+        beatReplica(0);
+        monitor.measure();
+        
+        // when
+        replica.execute("DROP TABLE replica_heartbeat");
+        monitor.measure();
+        
+        // then
+        assertThat(readOnly.execute(status -> node())).isEqualTo("primary");
+    }
+    
+    
+    private String node() {
+        return routed.queryForObject("SELECT name FROM node", String.class);
+    }
+    
+    /**
+     * 복제본에 lagMillis 전에 복제된 heartbeat 를 쓴다
+     */
+    private void beatReplica(long lagMillis) {
+        replica.update("MERGE INTO replica_heartbeat (id, beat_millis) KEY (id) VALUES (1, ?)", System.currentTimeMillis() - lagMillis);
+    }
+    
+}
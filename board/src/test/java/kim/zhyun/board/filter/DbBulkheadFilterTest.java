@@ -0,0 +1,93 @@
+package kim.zhyun.board.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DbBulkheadFilterTest {
+    private DbBulkheadFilter filter;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        filter = new DbBulkheadFilter(1, Duration.ofMillis(10), new ObjectMapper());
+    }
+    
+    @DisplayName("자리가 없으면 DB 를 쓰는 요청은 503, 구독과 메모리에서 답하는 요청은 자리 없이 통과")
+    @Test
+    void bypass_paths_without_db() throws Exception {
+        // given - 자리 1개를 잡은 요청 안에서 다른 요청을 보낸다
+        Map<String, Integer> nested = new LinkedHashMap<>();
+        MockFilterChain holdsPermit = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    for (String uri : List.of("/articles/2", "/article", "/articles/stream", "/articles/count",
+                                              "/articles/search", "/articles/delete-jobs/abc", "/caches/stats"))
+                        nested.put(uri, perform(uri));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        
+        // when
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/articles/1"), outer, holdsPermit);
+        
+        // then
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested).containsExactly(Map.entry("/articles/2", 503),
+                                           Map.entry("/article", 503),
+                                           Map.entry("/articles/stream", 200),
+                                           Map.entry("/articles/count", 200),
+                                           Map.entry("/articles/search", 200),
+                                           Map.entry("/articles/delete-jobs/abc", 200),
+                                           Map.entry("/caches/stats", 200));
+        assertThat(perform("/articles/2")).isEqualTo(200);
+    }
+    
+    @DisplayName("비동기로 응답을 쓰는 요청은 응답을 다 쓴 뒤에 자리를 돌려준다")
+    @Test
+    void async_release_after_completion() throws Exception {
+        // given
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/articles/export");
+        export.setAsyncSupported(true);
+        MockFilterChain startsAsync = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                request.startAsync();
+            }
+        };
+        
+        // when
+        filter.doFilter(export, new MockHttpServletResponse(), startsAsync);
+        int whileWriting = perform("/articles/1");
+        export.getAsyncContext().complete();
+        int afterComplete = perform("/articles/1");
+        
+        // then
+        assertThat(whileWriting).isEqualTo(503);
+        assertThat(afterComplete).isEqualTo(200);
+    }
+    
+    
+    private int perform(String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, new MockFilterChain());
+        return response.getStatus();
+    }
+    
+}
@@ -0,0 +1,84 @@
+package kim.zhyun.board.job;
+
+import kim.zhyun.board.data.DeleteJobDto;
+import kim.zhyun.board.data.type.DeleteJobStatus;
+import kim.zhyun.board.exception.DeleteJobRejectedException;
+import kim.zhyun.board.service.ArticleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static kim.zhyun.board.data.type.DeleteJobStatus.COMPLETED;
+import static kim.zhyun.board.data.type.DeleteJobStatus.RUNNING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+class ArticleDeleteJobRunnerTest {
+    
+    private final ArticleService service = mock(ArticleService.class);
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private ArticleDeleteJobRunner runner;
+    
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        runner.shutdown();
+    }
+    
+    @DisplayName("실행 중인 작업은 retention 이 지나도 조회되고, 끝난 뒤 retention 이 지나면 조회되지 않는다")
+    @Test
+    void running_job_not_expired() throws Exception {
+        // given
+        blockDeletes();
+        runner = new ArticleDeleteJobRunner(service, 500, 1, 10, Duration.ofMillis(50));
+        DeleteJobDto job = runner.submit(Set.of(1L, 2L, 3L));
+        
+        // when
+        Thread.sleep(200);
+        
+        // then
+        assertThat(runner.find(job.getId()).getStatus()).isEqualTo(RUNNING);
+        
+        gate.countDown();
+        awaitStatus(job.getId(), COMPLETED);
+        Thread.sleep(200);
+        assertThrows(RuntimeException.class, () -> runner.find(job.getId()));
+    }
+    
+    @DisplayName("실행을 기다리는 작업이 가득 차면 거절하고, 거절한 작업은 조회되지 않는다")
+    @Test
+    void queue_full_rejected() {
+        // given - 스레드 1개가 막혀 있고 대기열 1개가 차 있다
+        blockDeletes();
+        runner = new ArticleDeleteJobRunner(service, 500, 1, 1, Duration.ofHours(1));
+        runner.submit(Set.of(1L));
+        runner.submit(Set.of(2L));
+        
+        // when
+        assertThrows(DeleteJobRejectedException.class, () -> runner.submit(Set.of(3L)));
+        
+        // then
+        gate.countDown();
+    }
+    
+    
+    private void blockDeletes() {
+        willAnswer(invocation -> gate.await(10, TimeUnit.SECONDS)).given(service).deleteMany(anySet());
+    }
+    
+    private void awaitStatus(String id, DeleteJobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runner.find(id).getStatus() != status && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertThat(runner.find(id).getStatus()).isEqualTo(status);
+    }
+    
+}
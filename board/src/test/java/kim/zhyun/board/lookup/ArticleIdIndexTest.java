@@ -0,0 +1,117 @@
+package kim.zhyun.board.lookup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kim.zhyun.board.event.ArticleChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleIdIndexTest {
+    
+    private JdbcTemplate jdbcTemplate;
+    private ArticleIdIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";mode=MYSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE article (id BIGINT PRIMARY KEY, deleted_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE SEQUENCE article_seq START WITH 1 INCREMENT BY 50");
+        // 1, 51, 101 블록을 나눠줬다. 최근 두 블록(51 ~ 150)은 아직 채워지는 중일 수 있다
+        allocateBlocks(3);
+        index = new ArticleIdIndex(jdbcTemplate, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+    
+    @DisplayName("채우기 전에는 거르지 않고, 채운 뒤에는 가장 큰 id 이하의 없는 게시글만 거른다")
+    @Test
+    void high_water_mark() {
+        // given
+        insert(1);
+        insert(3);
+        assertThat(index.isAbsent(2)).isFalse();
+        
+        // when
+        index.scan();
+        
+        // then
+        assertThat(index.isAbsent(1)).isFalse();
+        assertThat(index.isAbsent(2)).isTrue();
+        assertThat(index.isAbsent(3)).isFalse();
+        // 다른 인스턴스가 등록했을 수 있으므로 DB 에서 확인
+        assertThat(index.isAbsent(4)).isFalse();
+    }
+    
+    @DisplayName("이 인스턴스를 거치지 않고 들어온 게시글은 다시 읽으면 반영된다")
+    @Test
+    void reseed() {
+        // given
+        insert(1);
+        insert(5);
+        index.scan();
+        
+        // when - 복원이나 콘솔로 2번, 다른 인스턴스가 7번을 넣었다
+        insert(2);
+        insert(7);
+        boolean beforeReseed = index.isAbsent(2);
+        index.reseed();
+        
+        // then
+        assertThat(beforeReseed).isTrue();
+        assertThat(index.isAbsent(2)).isFalse();
+        assertThat(index.isAbsent(6)).isTrue();
+        assertThat(index.isAbsent(7)).isFalse();
+    }
+    
+    @DisplayName("이 인스턴스가 등록한 게시글은 바로, 삭제한 게시글은 커밋 뒤에 반영된다")
+    @Test
+    void created_and_deleted() {
+        // given
+        insert(1);
+        insert(5);
+        index.scan();
+        
+        // when
+        index.onCreated(ArticleChangedEvent.created(List.of(3L)));
+        index.onCommitted(ArticleChangedEvent.deleted(List.of(5L)));
+        
+        // then
+        assertThat(index.isAbsent(3)).isFalse();
+        assertThat(index.isAbsent(5)).isTrue();
+    }
+    
+    @DisplayName("다른 인스턴스가 아직 채우는 블록의 id 는 seed 가 본 가장 큰 id 보다 작아도 거르지 않는다")
+    @Test
+    void pooled_blocks_of_other_instances() {
+        // given - A 인스턴스가 101 블록에서 120 번을 등록했다
+        insert(1);
+        insert(120);
+        index.scan();
+        
+        // when - B 인스턴스가 그 전에 받아 둔 51 블록에서 60 번을 등록한다
+        insert(60);
+        
+        // then
+        assertThat(index.isAbsent(30)).isTrue();
+        assertThat(index.isAbsent(60)).isFalse();
+        assertThat(index.isAbsent(110)).isFalse();
+    }
+    
+    
+    private void allocateBlocks(int count) {
+        for (int i = 0; i < count; i++)
+            jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR article_seq", Long.class);
+    }
+    
+    private void insert(long id) {
+        jdbcTemplate.update("INSERT INTO article (id) VALUES (?)", id);
+    }
+    
+}
@@ -0,0 +1,49 @@
+package kim.zhyun.board.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 테스트는 기본적으로 메트릭 내보내기를 끄므로 @AutoConfigureObservability 로 켜고, 운영 설정(application.yml)의 노출 / 히스토그램 설정을 그대로 준다.
+ */
+@AutoConfigureObservability
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health, info, metrics, prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true"
+})
+class PrometheusScrapeTest {
+    
+    private final MockMvc mvc;
+    public PrometheusScrapeTest(@Autowired MockMvc mvc) {
+        this.mvc = mvc;
+    }
+    
+    @DisplayName("prometheus 수집 - 라우트별 지연시간 히스토그램과 요청당 SQL 수")
+    @Test
+    void route_histograms_and_statement_counts() throws Exception {
+        // given
+        mvc.perform(get("/articles")).andExpect(status().isOk());
+        
+        // when - then
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        matchesPattern("(?s).*http_server_requests_seconds_bucket\\{[^}]*uri=\"/articles\"[^}]*le=\"[^}]*}.*"),
+                        matchesPattern("(?s).*board_db_statements_per_request_bucket\\{[^}]*uri=\"/articles\"[^}]*}.*"),
+                        matchesPattern("(?s).*board_db_statements_per_request_count\\{method=\"GET\",uri=\"/articles\",?} 1\\.0.*"),
+                        matchesPattern("(?s).*board_db_statements_per_request_sum\\{method=\"GET\",uri=\"/articles\",?} [1-9].*"))));
+    }
+    
+}
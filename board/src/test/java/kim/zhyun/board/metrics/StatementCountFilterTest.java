@@ -0,0 +1,89 @@
+package kim.zhyun.board.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatementCountFilterTest {
+    private StatementCountInspector inspector;
+    private SimpleMeterRegistry registry;
+    private StatementCountFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        inspector = new StatementCountInspector();
+        registry = new SimpleMeterRegistry();
+        filter = new StatementCountFilter(inspector, registry);
+    }
+    
+    @DisplayName("요청을 처리한 스레드의 SQL 만 센다 - 같은 시각 다른 스레드의 SQL 은 제외")
+    @Test
+    void count_only_request_thread() throws Exception {
+        // given
+        FilterChain chain = (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/articles/{id}");
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+            
+            Thread background = new Thread(() -> inspector.inspect("update 3"));
+            background.start();
+            try {
+                background.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/articles/1"), new MockHttpServletResponse(), chain);
+        
+        // then
+        DistributionSummary summary = summary("/articles/{id}");
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+    }
+    
+    @DisplayName("요청 밖에서 실행한 SQL 과 실패한 요청의 SQL 은 다음 요청에 섞이지 않는다")
+    @Test
+    void not_leaked_to_next_request() throws Exception {
+        // given - 요청 밖(스케줄러 등)에서 실행한 SQL
+        inspector.inspect("select outside");
+        inspector.inspect("select outside");
+        
+        FilterChain failing = (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/article");
+            inspector.inspect("insert 1");
+            throw new IllegalStateException("실패");
+        };
+        FilterChain next = (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/articles/{id}");
+            inspector.inspect("select 1");
+        };
+        
+        // when
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(new MockHttpServletRequest("POST", "/article"), new MockHttpServletResponse(), failing));
+        filter.doFilter(new MockHttpServletRequest("GET", "/articles/1"), new MockHttpServletResponse(), next);
+        inspector.inspect("select outside");
+        
+        // then
+        assertThat(registry.get("board.db.statements.per.request").tag("uri", "/article").summary().totalAmount()).isEqualTo(1);
+        assertThat(summary("/articles/{id}").totalAmount()).isEqualTo(1);
+        assertThat(inspector.end()).isZero();
+    }
+    
+    
+    private DistributionSummary summary(String uri) {
+        return registry.get("board.db.statements.per.request").tag("method", "GET").tag("uri", uri).summary();
+    }
+    
+}
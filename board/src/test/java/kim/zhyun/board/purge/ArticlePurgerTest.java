@@ -0,0 +1,132 @@
+package kim.zhyun.board.purge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DB Test")
+@DataJpaTest
+class ArticlePurgerTest {
+    private static final Duration GRACE_PERIOD = Duration.ofDays(1);
+    private static final LocalDateTime NIGHT = LocalDateTime.of(2024, 1, 1, 3, 0);
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public ArticlePurgerTest(@Autowired DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    @DisplayName("삭제된 지 grace-period 가 지난 게시글만 지운다 (DELETE ... LIMIT)")
+    @Test
+    void purge_after_grace_period() {
+        // given
+        insert(1, null);
+        insert(2, NIGHT.minusDays(2));
+        insert(3, NIGHT.minusHours(1));
+        insert(4, NIGHT.minusDays(1).minusSeconds(1));
+        
+        // when
+        purger(200, 20_000, "02:00-06:00", NIGHT).purge();
+        
+        // then
+        assertThat(ids()).containsExactly(1L, 3L);
+    }
+    
+    @DisplayName("off-peak 시간대가 아니면 지우지 않는다")
+    @Test
+    void purge_outside_off_peak() {
+        // given
+        LocalDateTime noon = LocalDateTime.of(2024, 1, 1, 12, 0);
+        insert(1, noon.minusDays(2));
+        
+        // when
+        purger(200, 20_000, "02:00-06:00", noon).purge();
+        purger(200, 20_000, "02:00-06:00", LocalDateTime.of(2024, 1, 1, 6, 0)).purge();
+        
+        // then
+        assertThat(ids()).containsExactly(1L);
+    }
+    
+    @DisplayName("자정을 넘기는 off-peak 시간대는 시작 이후와 끝 이전 모두 포함한다")
+    @Test
+    void purge_off_peak_across_midnight() {
+        // given
+        String offPeak = "22:00-04:00";
+        insert(1, NIGHT.minusDays(2));
+        insert(2, NIGHT.minusDays(2));
+        insert(3, NIGHT.minusDays(2));
+        
+        // when - 21:59 와 04:00 은 시간대 밖이고, 23:30 과 다음날 01:00 에 한 건씩 지운다
+        purger(1, 1, offPeak, LocalDateTime.of(2024, 1, 1, 21, 59)).purge();
+        List<Long> beforeStart = ids();
+        purger(1, 1, offPeak, LocalDateTime.of(2024, 1, 1, 23, 30)).purge();
+        purger(1, 1, offPeak, LocalDateTime.of(2024, 1, 2, 1, 0)).purge();
+        purger(1, 1, offPeak, LocalDateTime.of(2024, 1, 2, 4, 0)).purge();
+        
+        // then
+        assertThat(beforeStart).hasSize(3);
+        assertThat(ids()).hasSize(1);
+    }
+    
+    @DisplayName("빈 off-peak 은 항상 지운다")
+    @Test
+    void purge_without_off_peak() {
+        // given
+        LocalDateTime noon = LocalDateTime.of(2024, 1, 1, 12, 0);
+        insert(1, noon.minusDays(2));
+        
+        // when
+        purger(200, 20_000, "", noon).purge();
+        
+        // then
+        assertThat(ids()).isEmpty();
+    }
+    
+    @DisplayName("한 번 실행에 max-rows-per-run 건까지만 batch-size 개씩 지운다")
+    @Test
+    void purge_max_rows_per_run() {
+        // given
+        for (long id = 1; id <= 5; id++)
+            insert(id, NIGHT.minusDays(2));
+        
+        // when
+        purger(2, 3, "02:00-06:00", NIGHT).purge();
+        
+        // then
+        assertThat(ids()).hasSize(2);
+        
+        // 다음 실행에서 나머지를 지운다
+        purger(2, 3, "02:00-06:00", NIGHT).purge();
+        assertThat(ids()).isEmpty();
+    }
+    
+    
+    private ArticlePurger purger(int batchSize, int maxRowsPerRun, String offPeak, LocalDateTime now) {
+        ZoneId zone = ZoneId.systemDefault();
+        Clock clock = Clock.fixed(now.atZone(zone).toInstant(), zone);
+        return new ArticlePurger(jdbcTemplate, GRACE_PERIOD, batchSize, Duration.ZERO, maxRowsPerRun, offPeak, clock);
+    }
+    
+    private void insert(long id, LocalDateTime deletedAt) {
+        jdbcTemplate.update("""
+                INSERT INTO article (id, title, content, created_at, version, view_count, deleted_at)
+                VALUES (?, ?, ?, ?, 0, 0, ?)""",
+                            id, "title " + id, "content " + id, NIGHT.minusDays(3), deletedAt);
+    }
+    
+    private List<Long> ids() {
+        return jdbcTemplate.queryForList("SELECT id FROM article ORDER BY id", Long.class);
+    }
+    
+}
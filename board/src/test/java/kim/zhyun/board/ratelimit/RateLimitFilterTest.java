@@ -0,0 +1,123 @@
+package kim.zhyun.board.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import kim.zhyun.board.config.RateLimitProperties;
+import kim.zhyun.board.config.RateLimitProperties.Concurrency;
+import kim.zhyun.board.config.RateLimitProperties.Route;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+    private SimpleMeterRegistry registry;
+    private RateLimitFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties(
+                true, 100, Duration.ofMinutes(10),
+                List.of(new Route("write", List.of("POST"), List.of("/article"), 2, 1, true),
+                        new Route("read-one", List.of("GET"), List.of("/articles/{id}"), 0, 0, true)),
+                new Concurrency(1, 1, 10, Duration.ofSeconds(10), 0.9));
+        filter = new RateLimitFilter(properties, new ObjectMapper(), registry);
+    }
+    
+    @DisplayName("클라이언트별 토큰 버킷 - capacity 를 넘으면 429, 다른 클라이언트는 통과")
+    @Test
+    void throttle_per_client() throws Exception {
+        // when
+        int first = perform("POST", "/article", "10.0.0.1").getStatus();
+        int second = perform("POST", "/article", "10.0.0.1").getStatus();
+        MockHttpServletResponse third = perform("POST", "/article", "10.0.0.1");
+        int other = perform("POST", "/article", "10.0.0.2").getStatus();
+        
+        // then
+        assertThat(first).isEqualTo(200);
+        assertThat(second).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(third.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(other).isEqualTo(200);
+        assertThat(registry.get("board.rate-limit.requests").tag("route", "write").tag("result", "throttled").counter().count())
+                .isEqualTo(1);
+    }
+    
+    @DisplayName("동시 실행 수 - limit 만큼 실행 중이면 기다리지 않고 503, 규칙에 없는 경로는 제한하지 않음")
+    @Test
+    void shed_over_concurrency_limit() throws Exception {
+        // given
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[2];
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    nested[0] = perform("GET", "/articles/2", "10.0.0.2");
+                    nested[1] = perform("GET", "/caches/stats", "10.0.0.2");
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        
+        // when
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/articles/1", "10.0.0.1"), outer, chain);
+        
+        // then
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested[0].getStatus()).isEqualTo(503);
+        assertThat(nested[1].getStatus()).isEqualTo(200);
+        assertThat(perform("GET", "/articles/2", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+    
+    @DisplayName("동시 실행 수 - 비동기로 응답을 쓰는 요청은 응답이 끝날 때 자리를 돌려준다")
+    @Test
+    void release_after_async_complete() throws Exception {
+        // given
+        MockHttpServletRequest streaming = request("GET", "/articles/1", "10.0.0.1");
+        streaming.setAsyncSupported(true);
+        MockFilterChain startAsync = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                request.startAsync();
+            }
+        };
+        
+        // when
+        filter.doFilter(streaming, new MockHttpServletResponse(), startAsync);
+        int whileStreaming = perform("GET", "/articles/2", "10.0.0.2").getStatus();
+        streaming.getAsyncContext().complete();
+        int afterComplete = perform("GET", "/articles/2", "10.0.0.2").getStatus();
+        
+        // then
+        assertThat(whileStreaming).isEqualTo(503);
+        assertThat(afterComplete).isEqualTo(200);
+        assertThat(registry.get("board.rate-limit.concurrency.in-flight").gauge().value()).isZero();
+    }
+    
+    
+    private MockHttpServletResponse perform(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, remoteAddr), response, new MockFilterChain());
+        return response;
+    }
+    
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+    
+}
@@ -0,0 +1,56 @@
+package kim.zhyun.board.repository;
+
+import kim.zhyun.board.data.ArticleChangeDto;
+import kim.zhyun.board.domain.ArticleChange;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static kim.zhyun.board.data.type.ArticleChangeType.CREATED;
+import static kim.zhyun.board.data.type.ArticleChangeType.UPDATED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DB Test")
+@DataJpaTest
+class ArticleChangeRepositoryTest {
+    
+    private final ArticleChangeRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    
+    public ArticleChangeRepositoryTest(@Autowired ArticleChangeRepository repository,
+                                       @Autowired DataSource dataSource) {
+        this.repository = repository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    @DisplayName("다른 인스턴스가 사이에 seq 를 받아 가도, 뒤에 기록한 이력의 seq 가 더 크다")
+    @Test
+    void seq_follows_allocation_order_across_instances() {
+        // given - 이 인스턴스가 이력을 하나 쓴 뒤
+        LocalDateTime now = LocalDateTime.now();
+        ArticleChange first = repository.saveAndFlush(ArticleChange.of(null, CREATED, 1L, now));
+        
+        // when - 다른 인스턴스가 seq 를 받아 이력을 쓰고
+        long other = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR article_change_order_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO article_change (seq, type, article_id, changed_at) VALUES (?, ?, ?, ?)",
+                            other, CREATED.name(), 2L, now);
+        // 이 인스턴스가 다시 쓴다 (블록으로 받았다면 first + 1 을 썼을 것)
+        ArticleChange second = repository.saveAndFlush(ArticleChange.of(null, UPDATED, 1L, now));
+        
+        // then
+        assertThat(other).isGreaterThan(first.getSeq());
+        assertThat(second.getSeq()).isGreaterThan(other);
+        
+        // other 까지 읽은 소비자도 second 를 받는다
+        List<ArticleChangeDto> afterOther = repository.findBySeqGreaterThanOrderBySeqAsc(other, Limit.of(10));
+        assertThat(afterOther).extracting(ArticleChangeDto::getSeq).containsExactly(second.getSeq());
+    }
+    
+}
@@ -1,20 +1,27 @@
 package kim.zhyun.board.repository;
 
 import kim.zhyun.board.config.JpaAuditingConfig;
+import kim.zhyun.board.data.ArticleSummaryDto;
 import kim.zhyun.board.domain.Article;
+import kim.zhyun.board.domain.ArticleContent;
+import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DisplayName("DB Test")
 @Import(JpaAuditingConfig.class)
@@ -22,9 +29,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 class ArticleRepositoryTest {
     
     private final ArticleRepository repository;
+    private final TestEntityManager entityManager;
     
-    public ArticleRepositoryTest(@Autowired ArticleRepository repository) {
+    public ArticleRepositoryTest(@Autowired ArticleRepository repository,
+                                 @Autowired TestEntityManager entityManager) {
         this.repository = repository;
+        this.entityManager = entityManager;
     }
     
     @Test
@@ -42,7 +52,7 @@ class ArticleRepositoryTest {
     @DisplayName("게시글 등록 테스트 - 게시글 1개")
     public void insert_and_read_article_all() {
         // given
-        Article article = Article.of(null, "title 1", "content 1", null, null);
+        Article article = Article.of(null, "title 1", "content 1", null, null, null, 0L, null);
         
         // when
         Article saved = repository.save(article);
@@ -54,6 +64,63 @@ class ArticleRepositoryTest {
         assertThat(articles.size()).isEqualTo(1);
     }
     
+    @Test
+    @DisplayName("게시글 등록 테스트 - 압축 저장한 내용은 읽을 때 풀린다")
+    public void insert_compressed_content_and_read() {
+        // given
+        String content = "<p>안뇽하십니꽈</p>".repeat(1_000);
+        Article article = Article.of(null, "title 1", ArticleContent.compress(content), null, null, null, 0L, null);
+        
+        // when
+        Long id = repository.save(article).getId();
+        entityManager.flush();
+        entityManager.clear();
+        
+        // then
+        String stored = (String) entityManager.getEntityManager()
+                .createNativeQuery("SELECT CAST(content AS VARCHAR) FROM article WHERE id = ?1")
+                .setParameter(1, id)
+                .getSingleResult();
+        
+        assertThat(ArticleContent.isCompressed(stored)).isTrue();
+        assertThat(stored.length()).isLessThan(content.length());
+        assertThat(repository.findById(id).get().getContent()).isEqualTo(content);
+    }
+    
+    @Test
+    @DisplayName("게시글 커서 조회 테스트 - id 오름차순으로 limit 만큼")
+    public void read_article_after_cursor() {
+        // given
+        insertDummyData();
+        List<Article> all = repository.findAll();
+        long after = all.get(4).getId();
+        
+        // when
+        List<Article> articles = repository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(3));
+        
+        // then
+        assertThat(articles).isEqualTo(all.subList(5, 8));
+    }
+    
+    @Test
+    @DisplayName("게시글 요약 조회 테스트 - content 없이 id, 제목, 작성 시각만")
+    public void read_article_summary_after_cursor() {
+        // given
+        insertDummyData();
+        List<Article> all = repository.findAll();
+        long after = all.get(4).getId();
+        
+        // when
+        List<ArticleSummaryDto> summaries = repository.findSummaryByIdGreaterThanOrderByIdAsc(after, Limit.of(3));
+        
+        // then
+        assertThat(summaries)
+                .extracting(ArticleSummaryDto::getId, ArticleSummaryDto::getTitle)
+                .containsExactly(all.subList(5, 8).stream()
+                        .map(article -> tuple(article.getId(), article.getTitle()))
+                        .toArray(Tuple[]::new));
+    }
+    
     @Test
     @DisplayName("게시글 수정 테스트 - 게시글 1번 업데이트")
     public void update_1L_and_read_article() {
@@ -70,6 +137,86 @@ class ArticleRepositoryTest {
         assertThat(repository.getReferenceById(1L)).isEqualTo(read1L);
     }
     
+    @Test
+    @DisplayName("게시글 수정 테스트 - select 없이 update 1건")
+    public void update_title_and_content_without_select() {
+        // given
+        insertDummyData();
+        long id = repository.findAll().get(2).getId();
+        LocalDateTime modifiedAt = LocalDateTime.now().plusMinutes(1).withNano(0);
+        
+        // when
+        int updated = repository.updateTitleAndContent(id, "title update", "content update", modifiedAt, null);
+        
+        // then
+        Article article = repository.findById(id).orElseThrow();
+        
+        assertThat(updated).isEqualTo(1);
+        assertThat(article.getTitle()).isEqualTo("title update");
+        assertThat(article.getContent()).isEqualTo("content update");
+        assertThat(article.getModifiedAt()).isEqualTo(modifiedAt);
+        assertThat(article.getVersion()).isEqualTo(1L);
+    }
+    
+    @Test
+    @DisplayName("게시글 수정 테스트 - 버전이 다르면 0건")
+    public void update_with_stale_version() {
+        // given
+        insertDummyData();
+        long id = repository.findAll().get(2).getId();
+        repository.updateTitleAndContent(id, "first", "first", LocalDateTime.now(), 0L);
+        
+        // when
+        int updated = repository.updateTitleAndContent(id, "second", "second", LocalDateTime.now(), 0L);
+        
+        // then
+        assertThat(updated).isZero();
+        assertThat(repository.findById(id).orElseThrow().getTitle()).isEqualTo("first");
+    }
+    
+    @Test
+    @DisplayName("게시글 수정 테스트 - 존재하지 않는 게시글은 0건")
+    public void update_none_existent_article() {
+        // when
+        int updated = repository.updateTitleAndContent(300L, "title update", "content update", LocalDateTime.now(), null);
+        
+        // then
+        assertThat(updated).isZero();
+    }
+    
+    @Test
+    @DisplayName("게시글 1개 삭제 - deletedAt 만 update 1건, 이미 삭제됐으면 0건")
+    public void delete_one_by_id_without_select() {
+        // given
+        insertDummyData();
+        long id = repository.findAll().get(3).getId();
+        
+        // when - then
+        assertThat(repository.deleteOneById(id, null, LocalDateTime.now())).isEqualTo(1);
+        assertThat(repository.findById(id)).isEmpty();
+        assertThat(repository.existsById(id)).isFalse();
+        assertThat(repository.findAll().size()).isEqualTo(9);
+        assertThat(repository.deleteOneById(id, null, LocalDateTime.now())).isZero();
+    }
+    
+    @Test
+    @DisplayName("게시글 여러개 soft delete - 삭제된 게시글은 조회, 수정되지 않는다")
+    public void delete_all_by_id_in_soft() {
+        // given
+        insertDummyData();
+        List<Article> articles = repository.findAll();
+        Set<Long> ids = Set.of(articles.get(1).getId(), articles.get(5).getId());
+        
+        // when
+        int deleted = repository.deleteAllByIdIn(ids, LocalDateTime.now());
+        
+        // then
+        assertThat(deleted).isEqualTo(2);
+        assertThat(repository.findAllById(ids)).isEmpty();
+        ids.forEach(id -> assertThat(repository.updateTitleAndContent(id, "title", "content", LocalDateTime.now(), null)).isZero());
+        assertThat(repository.deleteAllByIdIn(ids, LocalDateTime.now())).isZero();
+    }
+    
     @Test
     @DisplayName("게시글 1개 삭제 - 존재하는 게시글")
     public void delete_article_one() {
@@ -132,7 +279,7 @@ class ArticleRepositoryTest {
         List<Article> dummyInsert = new ArrayList<>();
         IntStream.rangeClosed(1, 10)
                 .forEach(idx -> dummyInsert.add(
-                        Article.of(null, "title " + idx, "content " + idx, null, null)));
+                        Article.of(null, "title " + idx, "content " + idx, null, null, null, 0L, null)));
         
         System.out.println("💁------- dummy data inserted ------------------------------------------------------------------------------------------------------┐");
         repository.saveAll(dummyInsert);
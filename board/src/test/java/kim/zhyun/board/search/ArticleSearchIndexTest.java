@@ -0,0 +1,133 @@
+package kim.zhyun.board.search;
+
+import kim.zhyun.board.data.ArticleSearchResult;
+import kim.zhyun.board.domain.Article;
+import kim.zhyun.board.event.ArticleChangedEvent;
+import kim.zhyun.board.repository.ArticleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ArticleSearchIndexTest {
+    
+    private final ArticleRepository articleRepository = mock(ArticleRepository.class);
+    private ArticleSearchIndex index;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new ArticleSearchIndex(articleRepository, mock(PlatformTransactionManager.class));
+        given(articleRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).willReturn(List.of());
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+    
+    @DisplayName("기동 후 색인 - 전체 게시글을 페이지 단위로 모두 읽어 색인한다")
+    @Test
+    void rebuild_all_pages() {
+        // given - 첫 페이지 1000건, 두 번째 페이지 1건
+        List<Article> firstPage = LongStream.rangeClosed(1, 1_000)
+                .mapToObj(id -> article(id, "제목 " + id, "평범한 본문"))
+                .toList();
+        given(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).willReturn(firstPage);
+        given(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(1_000L), any(Limit.class)))
+                .willReturn(List.of(article(1_001, "마지막 게시글", "두 번째 페이지의 특별한 본문")));
+        
+        // when
+        index.rebuildAll();
+        
+        // then
+        assertThat(index.search("평범한", 0, 2_000)).hasSize(1_000);
+        assertThat(index.search("특별한", 0, 10)).extracting(ArticleSearchResult::getId).containsExactly(1_001L);
+    }
+    
+    @DisplayName("검색 - 제목에 있는 게시글이 본문에만 있는 게시글보다 앞에 오고, page 와 size 로 나눠 돌려준다")
+    @Test
+    void ranking_and_pagination() {
+        // given
+        given(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).willReturn(List.of(
+                article(1, "게시판 공지", "캐시 설정 안내"),
+                article(2, "캐시 설정", "게시판 공지"),
+                article(3, "오늘의 날씨", "맑음")));
+        index.rebuildAll();
+        
+        // when
+        List<ArticleSearchResult> all = index.search("캐시", 0, 10);
+        List<ArticleSearchResult> first = index.search("캐시", 0, 1);
+        List<ArticleSearchResult> second = index.search("캐시", 1, 1);
+        List<ArticleSearchResult> third = index.search("캐시", 2, 1);
+        
+        // then
+        assertThat(all).extracting(ArticleSearchResult::getId).containsExactly(2L, 1L);
+        assertThat(all.get(0).getScore()).isGreaterThan(all.get(1).getScore());
+        assertThat(first).extracting(ArticleSearchResult::getId).containsExactly(2L);
+        assertThat(second).extracting(ArticleSearchResult::getId).containsExactly(1L);
+        assertThat(third).isEmpty();
+        // 모든 단어를 포함해야 한다
+        assertThat(index.search("캐시 날씨", 0, 10)).isEmpty();
+        assertThat(index.search(" ", 0, 10)).isEmpty();
+    }
+    
+    @DisplayName("커밋된 등록, 수정 이벤트는 해당 게시글만 다시 읽어 색인을 바꾼다")
+    @Test
+    void apply_created_and_updated() {
+        // given
+        given(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .willReturn(List.of(article(1, "처음 제목", "본문")));
+        index.rebuildAll();
+        given(articleRepository.findAllById(List.of(1L))).willReturn(List.of(article(1, "바뀐 제목", "본문")));
+        given(articleRepository.findAllById(List.of(2L))).willReturn(List.of(article(2, "새 게시글", "본문")));
+        
+        // when
+        index.apply(ArticleChangedEvent.updated(1L));
+        index.apply(ArticleChangedEvent.created(List.of(2L)));
+        
+        // then
+        assertThat(index.search("처음", 0, 10)).isEmpty();
+        assertThat(index.search("바뀐", 0, 10)).extracting(ArticleSearchResult::getId).containsExactly(1L);
+        assertThat(index.search("새", 0, 10)).extracting(ArticleSearchResult::getTitle).containsExactly("새 게시글");
+        assertThat(index.search("본문", 0, 10)).hasSize(2);
+    }
+    
+    @DisplayName("삭제 이벤트, 또는 수정 이벤트 뒤에 다시 읽었을 때 없는 게시글은 색인에서 지운다")
+    @Test
+    void apply_deleted() {
+        // given
+        given(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).willReturn(List.of(
+                article(1, "지울 게시글", "본문"),
+                article(2, "그 사이 지워진 게시글", "본문"),
+                article(3, "남는 게시글", "본문")));
+        index.rebuildAll();
+        given(articleRepository.findAllById(List.of(2L))).willReturn(List.of());
+        
+        // when
+        index.apply(ArticleChangedEvent.deleted(List.of(1L)));
+        index.apply(ArticleChangedEvent.updated(2L));
+        
+        // then
+        assertThat(index.search("본문", 0, 10)).extracting(ArticleSearchResult::getId).containsExactly(3L);
+    }
+    
+    
+    private static Article article(long id, String title, String content) {
+        LocalDateTime now = LocalDateTime.now();
+        return Article.of(id, title, content, now, now, 0L, 0L, null);
+    }
+    
+}
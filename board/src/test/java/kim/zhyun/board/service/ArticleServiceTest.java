@@ -6,7 +6,9 @@ import kim.zhyun.board.data.ArticleUpdateRequest;
 import kim.zhyun.board.data.type.ExceptionType;
 import kim.zhyun.board.domain.Article;
 import kim.zhyun.board.exception.ArticleNotFoundException;
+import kim.zhyun.board.exception.ArticleVersionConflictException;
 import kim.zhyun.board.repository.ArticleRepository;
+import kim.zhyun.board.stats.ArticleCounter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,11 +30,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 class ArticleServiceTest {
     private final ArticleService service;
     private final ArticleRepository repository;
+    private final ArticleCounter articleCounter;
     
     public ArticleServiceTest(@Autowired ArticleService service,
-                              @Autowired ArticleRepository repository) {
+                              @Autowired ArticleRepository repository,
+                              @Autowired ArticleCounter articleCounter) {
         this.service = service;
         this.repository = repository;
+        this.articleCounter = articleCounter;
     }
     
     @DisplayName("전체 게시글 조회")
@@ -46,6 +51,22 @@ class ArticleServiceTest {
                         .toList());
     }
     
+    @DisplayName("게시글 커서 조회 - after 이후 size 개")
+    @Test
+    void findAll_after_cursor() {
+        // given
+        List<ArticleDto> all = service.findAll();
+        long after = all.get(2).getId();
+        
+        // when
+        List<ArticleDto> page = service.findAll(after, 4);
+        
+        // then
+        assertThat(page)
+                .usingRecursiveComparison()
+                .isEqualTo(all.subList(3, 7));
+    }
+    
     @DisplayName("없는 게시글 번호 조회 - ArticleNotFound Exception")
     @Test
     void findByIdWithArticleNotFoundException() {
@@ -70,6 +91,20 @@ class ArticleServiceTest {
                 .isEqualTo(ArticleDto.from(repository.findById(articleId).orElseGet(Article::new)));
     }
     
+    @DisplayName("게시글 수 - DB 와 맞춘 뒤 커밋되지 않은 삭제는 반영하지 않음")
+    @Test
+    void count() {
+        // given
+        articleCounter.reconcile();
+        long count = repository.count();
+        
+        // when
+        service.deleteOne(service.findAll().get(0).getId());
+        
+        // then
+        assertThat(service.count()).isEqualTo(count);
+    }
+    
     @DisplayName("게시글 등록")
     @Test
     void save() {
@@ -90,6 +125,23 @@ class ArticleServiceTest {
     }
     
     
+    @DisplayName("게시글 여러건 등록 - 요청 순서대로 id 반환")
+    @Test
+    void saveAll() {
+        // given
+        List<ArticleCreateRequest> requests = IntStream.rangeClosed(1, 120)
+                .mapToObj(idx -> ArticleCreateRequest.of("batch " + idx, "batch content " + idx))
+                .toList();
+        
+        // when
+        List<Long> savedIds = service.saveAll(requests);
+        
+        // then
+        assertThat(savedIds).hasSize(requests.size()).doesNotHaveDuplicates();
+        assertThat(service.findById(savedIds.get(119)).getTitle()).isEqualTo("batch 120");
+    }
+    
+    
     @DisplayName("게시글 수정 - 실패 : 없는 게시글 번호 접근")
     @Test
     void update_fail_in_non_existent_id() {
@@ -127,6 +179,22 @@ class ArticleServiceTest {
         assertThat(updatedArticle.getModifiedAt()).isNotEqualTo(beforeArticle.getModifiedAt());
     }
     
+    @DisplayName("게시글 수정 - 실패 : 버전 불일치")
+    @Test
+    void update_fail_in_stale_version() {
+        // given
+        long id = service.findAll().get(5).getId();
+        long version = service.findById(id).getVersion();
+        service.update(ArticleUpdateRequest.of(id, "먼저 수정", "🏃"), version);
+        
+        // when - then
+        assertThrows(ArticleVersionConflictException.class,
+                () -> service.update(ArticleUpdateRequest.of(id, "늦은 수정", "🐢"), version),
+                ExceptionType.ARTICLE_VERSION_CONFLICT.getDescription());
+        assertThat(service.findById(id).getTitle()).isEqualTo("먼저 수정");
+        assertThat(service.findById(id).getVersion()).isEqualTo(version + 1);
+    }
+    
     @DisplayName("게시글 삭제 - 게시글 1개 삭제")
     @Test
     void delete_one() {
@@ -146,6 +214,30 @@ class ArticleServiceTest {
         assertThat(service.findAll().size() + 1).isEqualTo(beforeArticlesSize);
     }
     
+    @DisplayName("게시글 삭제 - 실패 : 버전 불일치")
+    @Test
+    void delete_one_fail_in_stale_version() {
+        // given
+        long id = service.findAll().get(4).getId();
+        long version = service.findById(id).getVersion();
+        service.update(ArticleUpdateRequest.of(id, "먼저 수정", "🏃"), version);
+        
+        // when - then
+        assertThrows(ArticleVersionConflictException.class,
+                () -> service.deleteOne(id, version),
+                ExceptionType.ARTICLE_VERSION_CONFLICT.getDescription());
+        assertThat(repository.existsById(id)).isTrue();
+    }
+    
+    @DisplayName("게시글 삭제 - 실패 : 없는 게시글 번호 접근")
+    @Test
+    void delete_one_fail_in_non_existent_id() {
+        // when - then
+        assertThrows(ArticleNotFoundException.class,
+                () -> service.deleteOne(Long.MAX_VALUE, 0L),
+                ExceptionType.ARTICLE_NOT_FOUND.getDescription());
+    }
+    
     @DisplayName("게시글 삭제 - 게시글 여러개 삭제")
     @Test
     void delete_in_non_existent_id() {
@@ -171,7 +263,7 @@ class ArticleServiceTest {
         List<Article> dummyInsert = new ArrayList<>();
         IntStream.rangeClosed(1, 10)
                 .forEach(idx -> dummyInsert.add(
-                        Article.of(null, "title " + idx, "content " + idx, null, null)));
+                        Article.of(null, "title " + idx, "content " + idx, null, null, null, 0L, null)));
         
         System.out.println("💁------- dummy data inserted ------------------------------------------------------------------------------------------------------┐");
         repository.saveAll(dummyInsert);
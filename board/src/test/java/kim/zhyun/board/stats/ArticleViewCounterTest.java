@@ -0,0 +1,133 @@
+package kim.zhyun.board.stats;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kim.zhyun.board.cache.StampedCache;
+import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.response.ArticleResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static kim.zhyun.board.config.CacheConfig.ARTICLE_CACHE;
+import static kim.zhyun.board.config.CacheConfig.ARTICLE_RESPONSE_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArticleViewCounterTest {
+    
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private StampedCache articleCache;
+    private StampedCache responseCache;
+    private ArticleViewCounter counter;
+    
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";mode=MYSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE article (id BIGINT PRIMARY KEY, view_count BIGINT NOT NULL CHECK (view_count < 100))");
+        jdbcTemplate.update("INSERT INTO article (id, view_count) VALUES (1, 0), (2, 0), (3, 0)");
+        
+        articleCache = new StampedCache(ARTICLE_CACHE, Caffeine.newBuilder().build(), true, Duration.ZERO);
+        responseCache = new StampedCache(ARTICLE_RESPONSE_CACHE, Caffeine.newBuilder().build(), true, Duration.ZERO);
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(articleCache, responseCache));
+        cacheManager.afterPropertiesSet();
+        
+        // flush 스레드는 띄우지 않고 stop 으로 flush 한다
+        counter = new ArticleViewCounter(jdbcTemplate, new DataSourceTransactionManager(dataSource), cacheManager,
+                                         registry, Duration.ofHours(1), 2);
+    }
+    
+    @DisplayName("모인 조회수를 flush 때 한 번에 더하고, 그 전에는 DB 조회수에 더해 돌려준다")
+    @Test
+    void flush() throws Exception {
+        // given
+        counter.view(1, 0);
+        counter.view(1, 0);
+        long viewCount = counter.view(1, 0);
+        counter.view(2, 0);
+        
+        // when
+        counter.stop();
+        
+        // then
+        assertThat(viewCount).isEqualTo(3);
+        assertThat(viewCounts()).containsExactly(3L, 1L, 0L);
+        assertThat(counter.view(1, 3)).isEqualTo(4);
+    }
+    
+    @DisplayName("max-ids 를 넘으면 처음 조회된 게시글의 조회는 세지 않는다")
+    @Test
+    void max_ids() throws Exception {
+        // given
+        counter.view(1, 0);
+        counter.view(2, 0);
+        
+        // when
+        counter.view(3, 0);
+        counter.view(1, 0);
+        counter.stop();
+        
+        // then
+        assertThat(viewCounts()).containsExactly(2L, 1L, 0L);
+        assertThat(registry.get("board.article.views.dropped").counter().count()).isEqualTo(1);
+    }
+    
+    @DisplayName("캐시된 게시글과 응답 본문은 지우지 않고 더한 만큼 조회수만 고친다")
+    @Test
+    void cache_adjusted() throws Exception {
+        // given
+        ArticleDto article = ArticleDto.of(1L, "title 1", "content 1", LocalDateTime.now(), null, 0L, 10L);
+        articleCache.put(1L, article);
+        responseCache.put(1L, ArticleResponseBody.of(article, new ObjectMapper().registerModule(new JavaTimeModule()).writer(), Integer.MAX_VALUE));
+        
+        // when
+        counter.view(1, 10);
+        counter.view(1, 10);
+        counter.stop();
+        
+        // then
+        assertThat(articleCache.get(1L, ArticleDto.class).getViewCount()).isEqualTo(12);
+        assertThat(responseCache.get(1L, ArticleResponseBody.class).getViewCount()).isEqualTo(12);
+    }
+    
+    @DisplayName("batch UPDATE 가 일부 실패하면 모두 되돌리고 다음 flush 때 한 번만 더한다")
+    @Test
+    void partial_failure_not_double_counted() throws Exception {
+        // given - 2번 게시글은 조회수 제약을 넘겨 UPDATE 가 실패한다
+        jdbcTemplate.update("UPDATE article SET view_count = 99 WHERE id = 2");
+        counter.view(1, 0);
+        counter.view(2, 99);
+        
+        // when
+        assertThrows(DataAccessException.class, counter::stop);
+        List<Long> afterFailure = viewCounts();
+        jdbcTemplate.update("UPDATE article SET view_count = 0 WHERE id = 2");
+        counter.stop();
+        
+        // then
+        assertThat(afterFailure).containsExactly(0L, 99L, 0L);
+        assertThat(viewCounts()).containsExactly(1L, 1L, 0L);
+    }
+    
+    
+    private List<Long> viewCounts() {
+        return jdbcTemplate.queryForList("SELECT view_count FROM article ORDER BY id", Long.class);
+    }
+    
+}
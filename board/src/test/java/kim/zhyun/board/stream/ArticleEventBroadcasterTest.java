@@ -0,0 +1,183 @@
+package kim.zhyun.board.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kim.zhyun.board.data.ArticleChangeDto;
+import kim.zhyun.board.event.ArticleChangesRecordedEvent;
+import kim.zhyun.board.repository.ArticleChangeRepository;
+import kim.zhyun.board.service.ArticleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static kim.zhyun.board.data.type.ArticleChangeType.UPDATED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ArticleEventBroadcasterTest {
+    private static final int BUFFER_SIZE = 2;
+    
+    private final ArticleService articleService = mock(ArticleService.class);
+    private final ArticleChangeRepository changeRepository = mock(ArticleChangeRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch sendGate = new CountDownLatch(1);
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private ArticleEventBroadcaster broadcaster;
+    
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ArticleEventBroadcaster(articleService, changeRepository,
+                                                  new ObjectMapper().registerModule(new JavaTimeModule()),
+                                                  registry, BUFFER_SIZE, Duration.ofMinutes(1)) {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter(sendGate);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        given(changeRepository.findBySeqGreaterThanOrderBySeqAsc(anyLong(), any(Limit.class))).willReturn(List.of());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        sendGate.countDown();
+    }
+    
+    @DisplayName("큐가 가득 찰 만큼 느린 구독자는 연결을 끊는다")
+    @Test
+    void evict_slow_subscriber() throws Exception {
+        // given - 첫 이벤트를 보내는 중에 멈춘 구독자
+        broadcaster.subscribe(null);
+        RecordingEmitter slow = emitters.get(0);
+        
+        // when - 보내는 중인 1건 + 큐 BUFFER_SIZE 건을 넘겨 이벤트가 온다
+        for (long seq = 1; seq <= BUFFER_SIZE + 2; seq++)
+            broadcaster.on(new ArticleChangesRecordedEvent(List.of(change(seq))));
+        
+        // then
+        assertThat(slow.completed).isTrue();
+        assertThat(registry.get("board.stream.evictions").counter().count()).isEqualTo(1);
+        assertThat(registry.get("board.stream.subscribers").gauge().value()).isZero();
+    }
+    
+    @DisplayName("다시 보낼 이력이 MAX_REPLAY 를 넘으면 이력 대신 reset 을 보낸다")
+    @Test
+    void reset_over_max_replay() throws Exception {
+        // given
+        sendGate.countDown();
+        List<ArticleChangeDto> missed = LongStream.rangeClosed(1, ArticleEventBroadcaster.MAX_REPLAY + 1)
+                .mapToObj(ArticleEventBroadcasterTest::change)
+                .toList();
+        given(articleService.findChanges(0, ArticleEventBroadcaster.MAX_REPLAY + 1)).willReturn(missed);
+        
+        // when
+        broadcaster.subscribe(0L);
+        
+        // then
+        assertThat(emitters.get(0).next()).isEqualTo("event:reset\ndata:0\n\n");
+        assertThat(emitters.get(0).events).isEmpty();
+    }
+    
+    @DisplayName("settle-time 이 지난 이력만 id 를 붙여 다시 보내고, 그 뒤 이력은 id 없이 보낸다")
+    @Test
+    void replay_settled_with_id() throws Exception {
+        // given
+        sendGate.countDown();
+        given(articleService.findChanges(0, ArticleEventBroadcaster.MAX_REPLAY + 1)).willReturn(List.of(change(1)));
+        given(changeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(1L), any(Limit.class))).willReturn(List.of(change(3)));
+        
+        // when
+        broadcaster.subscribe(0L);
+        
+        // then
+        assertThat(emitters.get(0).next()).startsWith("id:1\nevent:UPDATED\n");
+        assertThat(emitters.get(0).next()).startsWith("event:UPDATED\n").contains("\"seq\":3");
+    }
+    
+    @DisplayName("다시 보내는 동안 들어온 실시간 이벤트는 다시 보낸 이력과 겹치지 않게 이어서 보낸다")
+    @Test
+    void dedupe_live_events_during_replay() throws Exception {
+        // given - 이력을 읽는 사이 2, 3번이 커밋되어 실시간으로도 온다
+        sendGate.countDown();
+        given(articleService.findChanges(anyLong(), anyInt())).willAnswer(invocation -> {
+            broadcaster.on(new ArticleChangesRecordedEvent(List.of(change(2), change(3))));
+            return List.of(change(1), change(2));
+        });
+        
+        // when
+        broadcaster.subscribe(0L);
+        
+        // then
+        RecordingEmitter emitter = emitters.get(0);
+        List<String> ids = List.of(emitter.next(), emitter.next(), emitter.next()).stream()
+                .map(event -> event.substring(0, event.indexOf('\n')))
+                .toList();
+        assertThat(ids).containsExactly("id:1", "id:2", "id:3");
+        assertThat(emitter.events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+    
+    
+    private static ArticleChangeDto change(long seq) {
+        return new ArticleChangeDto(seq, UPDATED, 1L, LocalDateTime.now());
+    }
+    
+    
+    /**
+     * 보낸 이벤트를 SSE 문자열로 남긴다. gate 가 열릴 때까지 보내지 않고 기다린다. (느린 구독자)
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch gate;
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private volatile boolean completed;
+        
+        private RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            events.add(builder.build().stream()
+                               .map(data -> data.getData().toString())
+                               .collect(Collectors.joining()));
+        }
+        
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+        
+        private String next() throws InterruptedException {
+            return events.poll(5, TimeUnit.SECONDS);
+        }
+    }
+    
+}
@@ -0,0 +1,247 @@
+package kim.zhyun.board.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import kim.zhyun.board.compression.ContentCompressionPolicy;
+import kim.zhyun.board.data.ArticleCreateRequest;
+import kim.zhyun.board.data.ArticleDto;
+import kim.zhyun.board.exception.ArticleWriteRejectedException;
+import kim.zhyun.board.stats.ArticleCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class ArticleWriteBufferTest {
+    
+    @TempDir
+    private Path dir;
+    
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final CountDownLatch insertGate = new CountDownLatch(1);
+    private JdbcTemplate jdbcTemplate;
+    private GatedJdbcTemplate gatedJdbcTemplate;
+    private Path journalPath;
+    private ArticleWriteBuffer buffer;
+    
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";mode=MYSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        gatedJdbcTemplate = new GatedJdbcTemplate(dataSource, insertGate);
+        jdbcTemplate.execute("""
+                CREATE TABLE article (
+                    id BIGINT PRIMARY KEY,
+                    title VARCHAR(255) NOT NULL,
+                    content TEXT NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    modified_at TIMESTAMP,
+                    version BIGINT,
+                    view_count BIGINT NOT NULL,
+                    deleted_at TIMESTAMP
+                )""");
+        jdbcTemplate.execute("CREATE SEQUENCE article_seq START WITH 1 INCREMENT BY 50");
+        journalPath = dir.resolve("article-write-behind.journal");
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        insertGate.countDown();
+        if (buffer != null)
+            buffer.stop();
+    }
+    
+    @DisplayName("insert 전에는 버퍼에서 조회되고, insert 를 기다린 뒤에는 DB 에 있다")
+    @Test
+    void pending_then_flushed() throws Exception {
+        // given
+        buffer = start(10);
+        
+        // when
+        long id = buffer.submit(ArticleCreateRequest.of("title 1", "content 1"));
+        Optional<ArticleDto> pending = buffer.pending(id);
+        insertGate.countDown();
+        buffer.awaitFlushed(List.of(id));
+        
+        // then
+        assertThat(pending).get().extracting(ArticleDto::getTitle).isEqualTo("title 1");
+        assertThat(buffer.pending(id)).isEmpty();
+        assertThat(titles()).containsExactly("title 1");
+    }
+    
+    @DisplayName("버퍼가 가득 차면 저널에 쓰지 않고 거절한다")
+    @Test
+    void full_buffer_rejected() throws Exception {
+        // given - insert 를 막아 첫 게시글이 버퍼에 남아 있게 한다
+        buffer = start(1);
+        long first = buffer.submit(ArticleCreateRequest.of("title 1", "content 1"));
+        
+        // when
+        assertThrows(ArticleWriteRejectedException.class,
+                     () -> buffer.submit(ArticleCreateRequest.of("title 2", "content 2")));
+        insertGate.countDown();
+        buffer.awaitFlushed(List.of(first));
+        
+        // then
+        assertThat(titles()).containsExactly("title 1");
+    }
+    
+    @DisplayName("대기 시간 안에 insert 되지 않으면 수정, 삭제 전 대기는 거절한다")
+    @Test
+    void await_flushed_timeout() throws Exception {
+        // given - insert 를 막는다
+        buffer = start(10);
+        long id = buffer.submit(ArticleCreateRequest.of("title 1", "content 1"));
+        
+        // when, then
+        assertThrows(ArticleWriteRejectedException.class, () -> buffer.awaitFlushed(List.of(id)));
+        
+        insertGate.countDown();
+        buffer.awaitFlushed(List.of(id));
+        assertThat(titles()).containsExactly("title 1");
+    }
+    
+    @DisplayName("종료한 뒤에는 요청을 받지 않는다")
+    @Test
+    void rejected_after_stop() throws Exception {
+        // given
+        buffer = start(10);
+        insertGate.countDown();
+        
+        // when
+        buffer.stop();
+        
+        // then
+        assertThrows(ArticleWriteRejectedException.class,
+                     () -> buffer.submit(ArticleCreateRequest.of("title 1", "content 1")));
+    }
+    
+    @DisplayName("insert 할 수 없는 게시글만 dead-letter 로 보내고, 같은 묶음의 나머지는 insert 한다")
+    @Test
+    void dead_letter() throws Exception {
+        // given - 첫 insert 를 막아 두 번째 요청부터 한 묶음으로 insert 되게 한다
+        buffer = start(10);
+        long first = buffer.submit(ArticleCreateRequest.of("title 1", "content 1"));
+        long tooLong = buffer.submit(ArticleCreateRequest.of("t".repeat(256), "content 2"));
+        long third = buffer.submit(ArticleCreateRequest.of("title 3", "content 3"));
+        
+        // when
+        insertGate.countDown();
+        buffer.awaitFlushed(List.of(first, tooLong, third));
+        
+        // then
+        assertThat(titles()).containsExactly("title 1", "title 3");
+        assertThat(buffer.pending(tooLong)).isEmpty();
+        assertThat(Files.readAllLines(dir.resolve("article-write-behind.journal.dead")))
+                .singleElement().asString().contains("\"id\":" + tooLong);
+        
+        // 다음 요청은 막히지 않고 insert 된다
+        long next = buffer.submit(ArticleCreateRequest.of("title 4", "content 4"));
+        buffer.awaitFlushed(List.of(next));
+        assertThat(titles()).containsExactly("title 1", "title 3", "title 4");
+    }
+    
+    @DisplayName("기동할 때 저널에 남은 게시글 중 DB 에 없는 것만 insert 하고 저널을 비운다")
+    @Test
+    void replay() throws Exception {
+        // given - 1번은 insert 됐고 2번은 insert 전에 종료된 상태
+        LocalDateTime now = LocalDateTime.now();
+        try (WriteBehindJournal journal = new WriteBehindJournal(journalPath, mapper, 10)) {
+            journal.append(List.of(new PendingArticle(1, "title 1", "content 1", now),
+                                   new PendingArticle(2, "title 2", "content 2", now)));
+        }
+        jdbcTemplate.update("INSERT INTO article (id, title, content, created_at, version, view_count) VALUES (1, 'title 1', 'content 1', ?, 0, 0)", now);
+        insertGate.countDown();
+        
+        // when
+        buffer = start(10);
+        
+        // then
+        assertThat(titles()).containsExactly("title 1", "title 2");
+        try (WriteBehindJournal journal = new WriteBehindJournal(journalPath, mapper, 10)) {
+            assertThat(journal.readAll()).isEmpty();
+        }
+    }
+    
+    @DisplayName("insert 가 끝난 세그먼트는 버퍼가 비지 않아도 지운다")
+    @Test
+    void journal_release() throws Exception {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        WriteBehindJournal journal = new WriteBehindJournal(journalPath, mapper, 2);
+        journal.append(List.of(new PendingArticle(1, "title 1", "content 1", now),
+                               new PendingArticle(2, "title 2", "content 2", now)));
+        journal.append(List.of(new PendingArticle(3, "title 3", "content 3", now)));
+        
+        // when - 앞의 2건만 insert 됨
+        journal.release(2);
+        
+        // then
+        assertThat(journal.readAll()).extracting(PendingArticle::id).containsExactly(3L);
+        journal.close();
+    }
+    
+    
+    private ArticleWriteBuffer start(int capacity) throws Exception {
+        ArticleWriteBuffer started = new ArticleWriteBuffer(true, capacity, 500, 10_000, journalPath, mapper,
+                                                            gatedJdbcTemplate,
+                                                            new DataSourceTransactionManager(jdbcTemplate.getDataSource()),
+                                                            event -> { },
+                                                            new ContentCompressionPolicy(false, DataSize.ofKilobytes(4)),
+                                                            mock(ArticleCounter.class));
+        started.start();
+        return started;
+    }
+    
+    private List<String> titles() {
+        return jdbcTemplate.queryForList("SELECT title FROM article ORDER BY id", String.class);
+    }
+    
+    
+    /**
+     * gate 가 열릴 때까지 batch insert 를 막아, 게시글이 버퍼에 남아 있는 상태를 만든다.
+     */
+    private static class GatedJdbcTemplate extends JdbcTemplate {
+        private final CountDownLatch gate;
+        
+        private GatedJdbcTemplate(DriverManagerDataSource dataSource, CountDownLatch gate) {
+            super(dataSource);
+            this.gate = gate;
+        }
+        
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            try {
+                if (!gate.await(10, TimeUnit.SECONDS))
+                    throw new IllegalStateException("insert gate 가 열리지 않았습니다.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return super.batchUpdate(sql, batchArgs, batchSize, pss);
+        }
+    }
+    
+}